@@ -0,0 +1,123 @@
+package io.github.susimsek.springnextjssamples.config.i18n;
+
+import io.github.susimsek.springnextjssamples.service.MessageService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Benchmarks of {@link DomainMessageSource} over mixed-locale traffic: the locales of the catalog, region and script
+ * variants sent by browsers, and locales without messages that fall back to the default locale. Messages are loaded
+ * from the Liquibase seed data so the catalog has realistic content.
+ *
+ * <p>Run with:
+ * <pre>
+ *     ./mvnw -P jmh,!webapp test-compile exec:exec@jmh -Djmh.includes=MessageSourceBenchmark
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageSourceBenchmark {
+
+    private static final String MESSAGE_DATA_LOCATION = "config/liquibase/data/message.csv";
+    private static final String SEPARATOR = ";";
+
+    private static final List<Locale> LOCALES = List.of(
+        Locale.of("tr"),
+        Locale.of("tr", "TR"),
+        Locale.of("en"),
+        Locale.US,
+        Locale.UK,
+        Locale.forLanguageTag("en-Latn-US"),
+        Locale.GERMANY,
+        Locale.forLanguageTag("zh-Hant-TW"));
+
+    private static final List<String> CODES = List.of(
+        "error.invalid_request",
+        "error.validation_failed",
+        "validation.field.notBlank",
+        "hello.message");
+
+    private static final Map<String, Object> SIZE_ARGS = Map.of("min", 3, "max", 50);
+
+    private DomainMessageSource messageSource;
+
+    @Setup
+    public void setUp() {
+        Map<String, Map<String, String>> messages = loadSeedMessages();
+        MessageVersion version = new MessageVersion(
+            messages.values().stream().mapToLong(Map::size).sum(), Instant.EPOCH);
+        messageSource = new DomainMessageSource(new MessageService(null) {
+            @Override
+            public MessageVersion getVersion() {
+                return version;
+            }
+
+            @Override
+            public Map<String, Map<String, String>> getAllMessages() {
+                return messages;
+            }
+        });
+        messageSource.setDefaultLocale(Locale.ENGLISH);
+        messageSource.setUseCodeAsDefaultMessage(true);
+        messageSource.refresh();
+    }
+
+    @Benchmark
+    public void getMessage(Blackhole blackhole) {
+        for (Locale locale : LOCALES) {
+            for (String code : CODES) {
+                blackhole.consume(messageSource.getMessage(code, null, locale));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getMessageWithNamedArgs(Blackhole blackhole) {
+        for (Locale locale : LOCALES) {
+            blackhole.consume(messageSource.getMessageWithNamedArgs("validation.field.size", SIZE_ARGS, locale));
+        }
+    }
+
+    private static Map<String, Map<String, String>> loadSeedMessages() {
+        Map<String, Map<String, String>> messages = new HashMap<>();
+        try (InputStream inputStream = new ClassPathResource(MESSAGE_DATA_LOCATION).getInputStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            reader.lines()
+                .skip(1)
+                .filter(line -> !line.isBlank())
+                .map(line -> line.split(SEPARATOR, -1))
+                .forEach(columns -> messages.computeIfAbsent(columns[1], locale -> new HashMap<>())
+                    .put(columns[2], columns[3]));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load " + MESSAGE_DATA_LOCATION, e);
+        }
+        return messages;
+    }
+}
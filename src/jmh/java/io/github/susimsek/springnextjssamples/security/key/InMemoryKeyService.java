@@ -0,0 +1,130 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+import com.nimbusds.jose.jwk.KeyUse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataRetrievalFailureException;
+
+/**
+ * {@code InMemoryKeyService} is a {@link KeyService} backed by a map, used by the benchmarks to run the token
+ * pipeline without a database. Keys are loaded from the Liquibase seed data so benchmarks use realistic keys.
+ */
+public class InMemoryKeyService implements KeyService {
+
+    private static final String KEY_DATA_LOCATION = "config/liquibase/data/key.csv";
+    private static final String SEPARATOR = ";";
+
+    private final Map<String, Key> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a key service holding the keys of the Liquibase seed data.
+     *
+     * @return the key service
+     */
+    public static InMemoryKeyService fromSeedData() {
+        InMemoryKeyService keyService = new InMemoryKeyService();
+        try (InputStream inputStream = new ClassPathResource(KEY_DATA_LOCATION).getInputStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            reader.lines()
+                .skip(1)
+                .filter(line -> !line.isBlank())
+                .map(line -> line.split(SEPARATOR, -1))
+                .map(columns -> Key.builder()
+                    .id(columns[0])
+                    .type(columns[1])
+                    .algorithm(columns[2])
+                    .publicKey(columns[3])
+                    .privateKey(columns[4])
+                    .active(Boolean.parseBoolean(columns[5]))
+                    .kid(columns[6])
+                    .use(columns[7])
+                    .build())
+                .forEach(keyService::save);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load " + KEY_DATA_LOCATION, e);
+        }
+        return keyService;
+    }
+
+    /**
+     * Returns the key ID of the first active key with the given use.
+     *
+     * @param use the key use
+     * @return the key ID
+     */
+    public String findActiveKid(KeyUse use) {
+        return keys.values().stream()
+            .filter(key -> key.isActive() && use.equals(key.getUse()))
+            .map(Key::getKid)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No active key with use " + use));
+    }
+
+    @Override
+    public List<Key> findAll() {
+        return keys.values().stream()
+            .filter(key -> key.isActive() && KeyUse.SIGNATURE.equals(key.getUse()))
+            .toList();
+    }
+
+    @Override
+    public void save(Key key) {
+        keys.put(key.getKid(), key);
+    }
+
+    @Override
+    public void remove(Key key) {
+        keys.remove(key.getKid());
+    }
+
+    @Override
+    public void deactivate(String kid) {
+        keys.computeIfPresent(kid, (keyId, key) -> Key.builder()
+            .id(key.getId())
+            .type(key.getType())
+            .algorithm(key.getAlgorithm().getName())
+            .publicKey(encode(key.getPublicKey()))
+            .privateKey(encode(key.getPrivateKey()))
+            .active(false)
+            .kid(key.getKid())
+            .use(key.getUse().identifier())
+            .activatedAt(key.getActivatedAt())
+            .build());
+    }
+
+    @Override
+    public Key findById(String id) {
+        return keys.values().stream()
+            .filter(key -> key.getId().equals(id))
+            .findFirst()
+            .orElse(null);
+    }
+
+    @Override
+    public Key findByKid(String kid) {
+        return keys.get(kid);
+    }
+
+    @Override
+    public Key findByKidOrThrow(String kid) {
+        Key key = keys.get(kid);
+        if (key == null || !key.isActive()) {
+            throw new DataRetrievalFailureException("The Key with kid '"
+                + kid + "' not found or not active in the KeyRepository.");
+        }
+        return key;
+    }
+
+    private static String encode(java.security.Key key) {
+        return key != null ? Base64.getEncoder().encodeToString(key.getEncoded()) : null;
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.susimsek.springnextjssamples.security.token;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.github.susimsek.springnextjssamples.security.AuthoritiesConstants;
+import io.github.susimsek.springnextjssamples.security.SecurityProperties;
+import io.github.susimsek.springnextjssamples.security.jwk.DomainJWKSource;
+import io.github.susimsek.springnextjssamples.security.key.InMemoryKeyService;
+import io.github.susimsek.springnextjssamples.security.key.KeyCryptoRegistry;
+import io.github.susimsek.springnextjssamples.security.key.KeyRotationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+
+/**
+ * Benchmarks of the JWT issue/verify pipeline: {@link TokenGenerator#generate}, {@link DomainTokenEncoder#encode}
+ * with and without JWE, and {@link TokenDecoder#decode} with and without the decoded token cache.
+ *
+ * <p>Keys are loaded from the Liquibase seed data. Run with:
+ * <pre>
+ *     ./mvnw -P jmh,!webapp test-compile exec:exec@jmh -Djmh.includes=TokenBenchmark
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private static final String ISSUER = "localhost";
+
+    private Authentication authentication;
+    private TokenGenerator jwsTokenGenerator;
+    private TokenGenerator jweTokenGenerator;
+    private DomainTokenEncoder tokenEncoder;
+    private TokenDecoder tokenDecoder;
+    private TokenDecoder cachingTokenDecoder;
+    private RSAKey encryptionKey;
+    private String encryptionKid;
+    private String jwsToken;
+    private String jweToken;
+
+    @Setup
+    public void setUp() {
+        InMemoryKeyService keyService = InMemoryKeyService.fromSeedData();
+        encryptionKid = keyService.findActiveKid(KeyUse.ENCRYPTION);
+        encryptionKey = keyService.findByKidOrThrow(encryptionKid).toRSAKey();
+
+        JWKSource<SecurityContext> jwkSource = new DomainJWKSource(keyService);
+        KeyCryptoRegistry keyCryptoRegistry = new KeyCryptoRegistry(new SimpleMeterRegistry());
+        tokenEncoder = new DomainTokenEncoder(jwkSource, keyCryptoRegistry);
+        jwsTokenGenerator = tokenGenerator(keyService, securityProperties(false));
+        jweTokenGenerator = tokenGenerator(keyService, securityProperties(true));
+
+        tokenDecoder = new TokenDecoder(keyService, jwtProcessor(jwkSource, keyCryptoRegistry), keyCryptoRegistry);
+        tokenDecoder.setCacheMaximumSize(0);
+        cachingTokenDecoder = new TokenDecoder(
+            keyService, jwtProcessor(jwkSource, keyCryptoRegistry), keyCryptoRegistry);
+
+        authentication = new UsernamePasswordAuthenticationToken("admin", null,
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+        jwsToken = jwsTokenGenerator.generate(authentication).getTokenValue();
+        jweToken = jweTokenGenerator.generate(authentication).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt generateJws() {
+        return jwsTokenGenerator.generate(authentication);
+    }
+
+    @Benchmark
+    public Jwt generateJwe() {
+        return jweTokenGenerator.generate(authentication);
+    }
+
+    @Benchmark
+    public Jwt encodeJws() {
+        return tokenEncoder.encode(TokenEncoderParameters.from(jwsHeader(), null, claims()), null);
+    }
+
+    @Benchmark
+    public Jwt encodeJwe() {
+        JWEHeader jweHeader = new JWEHeader.Builder(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM)
+            .contentType("JWT")
+            .keyID(encryptionKid)
+            .build();
+        return tokenEncoder.encode(TokenEncoderParameters.from(jwsHeader(), jweHeader, claims()), encryptionKey);
+    }
+
+    @Benchmark
+    public Jwt decodeJws() {
+        return tokenDecoder.decode(jwsToken);
+    }
+
+    @Benchmark
+    public Jwt decodeJwe() {
+        return tokenDecoder.decode(jweToken);
+    }
+
+    @Benchmark
+    public Jwt decodeJweCached() {
+        return cachingTokenDecoder.decode(jweToken);
+    }
+
+    private static JwsHeader jwsHeader() {
+        return JwsHeader.with(SignatureAlgorithm.RS256).build();
+    }
+
+    private static JwtClaimsSet claims() {
+        Instant issuedAt = Instant.now();
+        return JwtClaimsSet.builder()
+            .issuer(ISSUER)
+            .subject("admin")
+            .issuedAt(issuedAt)
+            .expiresAt(issuedAt.plusSeconds(3600))
+            .notBefore(issuedAt)
+            .id(UUID.randomUUID().toString())
+            .claim(AuthoritiesConstants.CLAIM_NAME, List.of("ROLE_ADMIN", "ROLE_USER"))
+            .build();
+    }
+
+    private TokenGenerator tokenGenerator(InMemoryKeyService keyService, SecurityProperties securityProperties) {
+        KeyRotationService keyRotationService = new KeyRotationService(keyService, securityProperties, Runnable::run);
+        return new TokenGenerator(tokenEncoder, keyService, securityProperties, keyRotationService);
+    }
+
+    private SecurityProperties securityProperties(boolean jweEnabled) {
+        SecurityProperties.Token token = new SecurityProperties.Token();
+        token.setIssuer(ISSUER);
+        token.setJweEnabled(jweEnabled);
+        token.setKeyId(encryptionKid);
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.setToken(token);
+        return securityProperties;
+    }
+
+    private static ConfigurableJWTProcessor<SecurityContext> jwtProcessor(JWKSource<SecurityContext> jwkSource,
+                                                                          KeyCryptoRegistry keyCryptoRegistry) {
+        ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.Family.RSA, jwkSource));
+        jwtProcessor.setJWSVerifierFactory(keyCryptoRegistry);
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return jwtProcessor;
+    }
+}
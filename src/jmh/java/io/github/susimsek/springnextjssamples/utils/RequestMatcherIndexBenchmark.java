@@ -0,0 +1,100 @@
+package io.github.susimsek.springnextjssamples.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Benchmarks of {@link RequestMatcherIndex} lookups over 60 rules, for a path matching none of them (the common case
+ * of an API call falling through to {@code anyRequest()}) and for a path matching a rule late in the list.
+ *
+ * <p>{@code linearScan*} replays the former per-request scan calling {@link AntPathMatcher#match} on every pattern
+ * as a baseline. Run with:
+ * <pre>
+ *     ./mvnw -P jmh,!webapp test-compile exec:exec@jmh -Djmh.includes=RequestMatcherIndexBenchmark
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestMatcherIndexBenchmark {
+
+    private static final String MISSED_PATH = "/api/v1/users/42/orders";
+    private static final String MATCHED_PATH = "/swagger-ui/index.html";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> patterns = new ArrayList<>();
+    private RequestMatcherIndex<String> index;
+
+    @Setup
+    public void setUp() {
+        for (String extension : List.of("html", "js", "css", "ico", "png", "svg", "webapp", "map", "txt", "json")) {
+            patterns.add("/*." + extension);
+        }
+        for (String directory : List.of("webjars", "css", "js", "images", "_next", "login", "fonts", "assets",
+            "static", "public", "media", "docs")) {
+            patterns.add("/" + directory + "/**");
+        }
+        for (String endpoint : List.of("health", "info", "metrics", "prometheus", "loggers", "env", "caches",
+            "threaddump", "heapdump", "scheduledtasks")) {
+            patterns.add("/actuator/" + endpoint + "/**");
+        }
+        for (String resource : List.of("hello", "auth/token", "auth/logout", "files", "exports", "imports",
+            "webhooks", "events", "reports", "downloads", "uploads", "stream", "ping", "status", "jobs")) {
+            patterns.add("/api/v{version}/" + resource + "/**");
+        }
+        patterns.addAll(List.of("/graphiql", "/graphql", "/subscriptions", "/h2-console/**", "/favicon.ico",
+            "/robots.txt", "/manifest.json", "/v3/api-docs/**", "/swagger-resources/**", "/error",
+            "/swagger-ui.html", "/swagger-ui/**", "/oauth2/**"));
+
+        RequestMatcherIndex.Builder<String> builder = RequestMatcherIndex.builder();
+        for (String pattern : patterns) {
+            builder.add(null, pattern, pattern);
+        }
+        index = builder.build();
+    }
+
+    @Benchmark
+    public String indexMissedPath() {
+        return index.match(HttpMethod.GET, MISSED_PATH);
+    }
+
+    @Benchmark
+    public String indexMatchedPath() {
+        return index.match(HttpMethod.GET, MATCHED_PATH);
+    }
+
+    @Benchmark
+    public String linearScanMissedPath() {
+        return linearScan(MISSED_PATH);
+    }
+
+    @Benchmark
+    public String linearScanMatchedPath() {
+        return linearScan(MATCHED_PATH);
+    }
+
+    private String linearScan(String path) {
+        return patterns.stream()
+            .filter(pattern -> pathMatcher.match(pattern, path))
+            .findFirst()
+            .orElse(null);
+    }
+}
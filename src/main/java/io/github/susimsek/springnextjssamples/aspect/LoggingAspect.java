@@ -16,6 +16,8 @@ import org.springframework.util.StopWatch;
  * <p>
  * The aspect utilizes a {@link LoggingHandler} to perform the actual logging.
  * Additionally, it measures the execution time of methods and logs it upon method exit.
+ * <p>
+ * Calls sampled out by the {@link LoggingHandler} only log their exit when slow, and their exceptions.
  */
 @Aspect
 @RequiredArgsConstructor
@@ -70,17 +72,22 @@ public class LoggingAspect {
         String className = joinPoint.getSignature().getDeclaringTypeName();
         String methodName = joinPoint.getSignature().getName();
         Object[] args = joinPoint.getArgs();
+        boolean sampled = loggingHandler.isSampled(joinPoint);
 
         // Log method entry with parameters
-        loggingHandler.logMethodEntry(className, methodName, args);
+        if (sampled) {
+            loggingHandler.logMethodEntry(className, methodName, args);
+        }
 
         try {
             Object result = joinPoint.proceed(); // Proceed with method execution
             stopWatch.stop();
             long duration = stopWatch.getTotalTimeMillis();
 
-            // Log method exit with result and duration
-            loggingHandler.logMethodExit(className, methodName, result, duration);
+            // Log method exit with result and duration, or only slow calls if sampled out
+            if (sampled || loggingHandler.shouldKeep(null, duration, false)) {
+                loggingHandler.logMethodExit(className, methodName, result, duration);
+            }
             return result;
         } catch (Throwable e) {
             stopWatch.stop();
@@ -32,6 +32,10 @@ public class RestClientLoggingInterceptor implements ClientHttpRequestIntercepto
             return execution.execute(request, body);
         }
 
+        if (!loggingHandler.isSampled(request)) {
+            return executeUnsampled(request, body, execution, stopWatch);
+        }
+
         logRequest(request, body);
 
         ClientHttpResponse response;
@@ -52,6 +56,48 @@ public class RestClientLoggingInterceptor implements ClientHttpRequestIntercepto
         return response;
     }
 
+    private ClientHttpResponse executeUnsampled(HttpRequest request, byte[] body,
+                                                ClientHttpRequestExecution execution,
+                                                StopWatch stopWatch) throws IOException {
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            stopWatch.stop();
+            loggingHandler.logRequest(
+                request.getMethod(), request.getURI(), request.getHeaders(), new byte[0], body.length, Source.CLIENT
+            );
+            logErrorResponse(request, stopWatch.getTotalTimeMillis());
+            throw e;
+        }
+        stopWatch.stop();
+        long duration = stopWatch.getTotalTimeMillis();
+        int statusCode = response.getStatusCode().value();
+        if (!loggingHandler.shouldKeep(statusCode, duration, false)) {
+            return response;
+        }
+
+        loggingHandler.logRequest(
+            request.getMethod(), request.getURI(), request.getHeaders(), new byte[0], body.length, Source.CLIENT
+        );
+        if (response.getStatusCode().isError()) {
+            response = new BufferingClientHttpResponseWrapper(response);
+            logResponse(request, response, duration);
+        } else {
+            loggingHandler.logResponse(
+                request.getMethod(),
+                request.getURI(),
+                statusCode,
+                response.getHeaders(),
+                new byte[0],
+                Math.max(response.getHeaders().getContentLength(), 0),
+                Source.CLIENT,
+                duration
+            );
+        }
+        return response;
+    }
+
     private void logRequest(HttpRequest request, byte[] body) {
         loggingHandler.logRequest(
             request.getMethod(), request.getURI(), request.getHeaders(), body, Source.CLIENT
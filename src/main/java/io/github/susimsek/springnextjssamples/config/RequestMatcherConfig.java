@@ -27,6 +27,12 @@ public class RequestMatcherConfig {
         };
     }
 
+    public String[] loginResourcePaths() {
+        return new String[] {
+            "/login/**"
+        };
+    }
+
     public String[] staticResourcePaths() {
         return new String[] {
             "/webjars/**",
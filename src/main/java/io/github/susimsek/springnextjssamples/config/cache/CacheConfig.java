@@ -1,16 +1,28 @@
 package io.github.susimsek.springnextjssamples.config.cache;
 
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
 import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.EntitySizeEstimator;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.ReflectiveSizeEstimator;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.SizeEstimator;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.StringMapSizeEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.OptionalLong;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -19,6 +31,7 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
@@ -33,11 +46,33 @@ public class CacheConfig {
         return new SpecificationKeyGenerator();
     }
 
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "spring.cache.invalidation.type", havingValue = "postgres")
+    public PostgresCacheInvalidationBus postgresCacheInvalidationBus(DataSource dataSource,
+                                                                     PlatformTransactionManager transactionManager,
+                                                                     ObjectMapper objectMapper) {
+        return new PostgresCacheInvalidationBus(
+            dataSource, transactionManager, objectMapper, cacheProperties.getInvalidation());
+    }
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(buildCaffeineConfig(cacheProperties.getDefaultConfig()));
-        return cacheManager;
+    @ConditionalOnMissingBean(CacheInvalidationBus.class)
+    public LoopbackCacheInvalidationBus loopbackCacheInvalidationBus() {
+        return new LoopbackCacheInvalidationBus();
+    }
+
+    @Bean
+    public CacheManager cacheManager(CacheInvalidationBus cacheInvalidationBus,
+                                     @Qualifier("taskExecutor") Executor taskExecutor,
+                                     MeterRegistry meterRegistry,
+                                     ObjectProvider<CacheReloader> cacheReloaders,
+                                     ObjectProvider<SizeEstimator> sizeEstimators) {
+        List<SizeEstimator> estimators = new ArrayList<>(sizeEstimators.orderedStream().toList());
+        estimators.add(new StringMapSizeEstimator());
+        estimators.add(new EntitySizeEstimator());
+        CaffeineCacheManager cacheManager = new DomainCaffeineCacheManager(cacheProperties, taskExecutor,
+            meterRegistry, cacheReloaders.orderedStream().toList(), new ReflectiveSizeEstimator(estimators));
+        return new InvalidatingCacheManager(cacheManager, cacheInvalidationBus);
     }
 
     @Bean
@@ -83,6 +118,9 @@ public class CacheConfig {
         caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(
             TimeUnit.SECONDS.toNanos(config.getTtl().getSeconds())));
         caffeineConfiguration.setStatisticsEnabled(true);
+        if (config.getExpireAfterAccess() != null) {
+            caffeineConfiguration.setExpireAfterAccess(OptionalLong.of(config.getExpireAfterAccess().toNanos()));
+        }
         if (config.getRefreshAfterWrite() != null) {
             caffeineConfiguration.setRefreshAfterWrite(
                 OptionalLong.of(TimeUnit.SECONDS.toNanos(
@@ -92,16 +130,4 @@ public class CacheConfig {
 
         cm.createCache(cacheName, caffeineConfiguration);
     }
-
-    private Caffeine<Object, Object> buildCaffeineConfig(CacheProperties.CacheConfig config) {
-        var caffeineBuilder = Caffeine.newBuilder()
-            .expireAfterWrite(config.getTtl())
-            .initialCapacity(config.getInitialCapacity())
-            .maximumSize(config.getMaximumSize())
-            .recordStats();
-        if (config.getRefreshAfterWrite() != null) {
-            caffeineBuilder.refreshAfterWrite(config.getRefreshAfterWrite());
-        }
-        return caffeineBuilder;
-    }
 }
@@ -0,0 +1,23 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * An eviction broadcast on a {@link CacheInvalidationBus}.
+ *
+ * @param origin    the ID of the cache manager that evicted the entry, so that it can ignore its own broadcasts,
+ *                  or {@code null} if the invalidation was raised by the bus itself
+ * @param cacheName the name of the cache, or {@code null} for all caches
+ * @param key       the evicted key, or {@code null} if the whole cache was cleared
+ */
+public record CacheInvalidation(@Nullable String origin, @Nullable String cacheName, @Nullable String key) {
+
+    /**
+     * Creates an invalidation of all entries of all caches, raised by the bus when it may have missed broadcasts.
+     *
+     * @return the invalidation
+     */
+    public static CacheInvalidation all() {
+        return new CacheInvalidation(null, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache evictions to the cache managers of all application instances, so that an entry evicted on one
+ * instance after a write does not stay stale on the others until it expires.
+ *
+ * @see InvalidatingCacheManager
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Broadcasts an invalidation to all subscribers, including those of this instance.
+     *
+     * @param invalidation the invalidation
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Registers a subscriber to the invalidations.
+     *
+     * @param subscriber the subscriber
+     */
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
@@ -1,7 +1,9 @@
 package io.github.susimsek.springnextjssamples.config.cache;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
@@ -9,6 +11,7 @@ import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Getter
@@ -20,6 +23,8 @@ public class CacheProperties {
     @Valid
     private CacheConfig defaultConfig;
 
+    private DataSize memoryBudget;
+
     private List<String> cacheNames;
 
     @Valid
@@ -28,6 +33,9 @@ public class CacheProperties {
     @Valid
     private HibernateCacheConfig hibernate;
 
+    @Valid
+    private InvalidationConfig invalidation = new InvalidationConfig();
+
     @Getter
     @Setter
     public static class CacheConfig {
@@ -40,6 +48,12 @@ public class CacheProperties {
         @NotNull(message = "{validation.field.notNull}")
         private Long maximumSize = 10000L;
 
+        private DataSize maximumWeight;
+
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer budgetShare;
+
+        private Duration expireAfterAccess;
 
         private Duration refreshAfterWrite;
     }
@@ -53,4 +67,26 @@ public class CacheProperties {
         @Valid
         private CacheConfig defaultQueryResultsRegion;
     }
+
+    @Getter
+    @Setter
+    public static class InvalidationConfig {
+        @NotNull(message = "{validation.field.notNull}")
+        private InvalidationType type = InvalidationType.LOOPBACK;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Pattern(regexp = "^[a-z_][a-z0-9_]*$", message = "{validation.field.pattern}")
+        private String channel = "cache_invalidation";
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration pollTimeout = Duration.ofMillis(500);
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+
+    public enum InvalidationType {
+        LOOPBACK,
+        POSTGRES
+    }
 }
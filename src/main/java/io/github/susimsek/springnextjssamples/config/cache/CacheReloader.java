@@ -0,0 +1,75 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Loads the value of an entry of a Spring cache, so that the cache can refresh entries in the background. A cache
+ * configured with {@code refresh-after-write} requires a {@code CacheReloader} bean for its name; entries read after
+ * that period are then reloaded asynchronously on the task executor while the current value keeps being served.
+ *
+ * <p>Example usage:
+ * <pre>
+ *     &#64;Bean
+ *     public CacheReloader exchangeRateReloader(ExchangeRateClient client) {
+ *         return CacheReloader.of("exchangeRate", key -&gt; client.fetchRate((String) key));
+ *     }
+ * </pre>
+ * </p>
+ */
+public interface CacheReloader {
+
+    /**
+     * Returns the name of the cache whose entries this reloader loads.
+     *
+     * @return the cache name
+     */
+    String getCacheName();
+
+    /**
+     * Loads the value of the given key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} to remove the entry
+     * @throws Exception if the value cannot be loaded, in which case the current value is kept
+     */
+    @Nullable
+    Object reload(Object key) throws Exception;
+
+    /**
+     * Creates a reloader for the given cache.
+     *
+     * @param cacheName the cache name
+     * @param loader    the function loading the value of a key
+     * @return the reloader
+     */
+    static CacheReloader of(String cacheName, Loader loader) {
+        return new CacheReloader() {
+            @Override
+            public String getCacheName() {
+                return cacheName;
+            }
+
+            @Override
+            public Object reload(Object key) throws Exception {
+                return loader.load(key);
+            }
+        };
+    }
+
+    /**
+     * The function loading the value of a key.
+     */
+    @FunctionalInterface
+    interface Loader {
+
+        /**
+         * Loads the value of the given key.
+         *
+         * @param key the key
+         * @return the value, or {@code null} to remove the entry
+         * @throws Exception if the value cannot be loaded
+         */
+        @Nullable
+        Object load(Object key) throws Exception;
+    }
+}
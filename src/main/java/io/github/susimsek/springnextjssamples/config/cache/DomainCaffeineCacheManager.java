@@ -0,0 +1,149 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.CacheWeigher;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.SizeEstimator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * A {@link CaffeineCacheManager} that builds each cache from its own {@link CacheProperties.CacheConfig}, falling back
+ * to the default configuration for caches without one, and binds each cache to Micrometer with
+ * {@link CaffeineCacheMetrics} when it is created.
+ *
+ * <p>The caches configured in {@code caches} are created, and bound to Micrometer, when the manager is created; other
+ * caches are created on first use with the default configuration.</p>
+ *
+ * <p>Cache maintenance, removal and refreshes run on the given executor. A cache configured with
+ * {@code refresh-after-write} is built as a loading cache around the {@link CacheReloader} of the same name; a
+ * missing reloader fails the creation of the manager.</p>
+ *
+ * <p>A cache is bounded by the estimated size of its entries instead of their number when it has a
+ * {@code maximum-weight}, or a {@code budget-share} of the global {@code memory-budget}: the budget is split across
+ * the configured caches in proportion to their shares, and a {@code budget-share} without {@code memory-budget} fails
+ * the creation of the manager. Entries are then weighed with a {@link CacheWeigher}, and the
+ * estimated size of the cache is published as the {@value #ESTIMATED_SIZE_METRIC} gauge.</p>
+ */
+public class DomainCaffeineCacheManager extends CaffeineCacheManager {
+
+    private static final String CACHE_MANAGER_TAG = "cache.manager";
+    private static final String CACHE_MANAGER_NAME = "cacheManager";
+    private static final String ESTIMATED_SIZE_METRIC = "cache.estimated.size";
+
+    private final CacheProperties cacheProperties;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CacheReloader> reloaders;
+    private final CacheWeigher weigher;
+    private final long totalBudgetShares;
+
+    /**
+     * Creates a cache manager.
+     *
+     * @param cacheProperties the cache configuration
+     * @param executor        the executor of maintenance tasks and refreshes
+     * @param meterRegistry   the registry to bind the caches to
+     * @param reloaders       the reloaders of the caches configured with {@code refresh-after-write}
+     * @param sizeEstimator   the estimator of the entries of the caches bounded by weight
+     */
+    public DomainCaffeineCacheManager(CacheProperties cacheProperties,
+                                      Executor executor,
+                                      MeterRegistry meterRegistry,
+                                      Collection<CacheReloader> reloaders,
+                                      SizeEstimator sizeEstimator) {
+        this.cacheProperties = cacheProperties;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.reloaders = reloaders.stream()
+            .collect(Collectors.toUnmodifiableMap(CacheReloader::getCacheName, Function.identity()));
+        this.weigher = new CacheWeigher(sizeEstimator);
+        this.totalBudgetShares = cacheProperties.getCaches().values().stream()
+            .filter(config -> config.getMaximumWeight() == null && config.getBudgetShare() != null)
+            .mapToLong(CacheProperties.CacheConfig::getBudgetShare)
+            .sum();
+        Assert.state(totalBudgetShares == 0 || cacheProperties.getMemoryBudget() != null,
+            "Caches configured with budget-share require spring.cache.memory-budget to be set");
+        cacheProperties.getCaches().forEach(this::checkReloader);
+        cacheProperties.getCaches().keySet().forEach(this::getCache);
+    }
+
+    @NonNull
+    @Override
+    protected Cache<Object, Object> createNativeCaffeineCache(@NonNull String name) {
+        CacheProperties.CacheConfig config = config(name);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .expireAfterWrite(config.getTtl())
+            .initialCapacity(config.getInitialCapacity())
+            .executor(executor)
+            .recordStats();
+        Long maximumWeight = maximumWeight(name, config);
+        if (maximumWeight != null) {
+            builder.maximumWeight(maximumWeight).weigher(weigher);
+        } else {
+            builder.maximumSize(config.getMaximumSize());
+        }
+        if (config.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(config.getExpireAfterAccess());
+        }
+        Cache<Object, Object> cache;
+        if (config.getRefreshAfterWrite() != null) {
+            checkReloader(name, config);
+            CacheReloader reloader = reloaders.get(name);
+            cache = builder.refreshAfterWrite(config.getRefreshAfterWrite()).build(reloader::reload);
+        } else {
+            cache = builder.build();
+        }
+        Tags tags = Tags.of(CACHE_MANAGER_TAG, CACHE_MANAGER_NAME);
+        new CaffeineCacheMetrics<>(cache, name, tags).bindTo(meterRegistry);
+        if (maximumWeight != null) {
+            Gauge.builder(ESTIMATED_SIZE_METRIC, cache, DomainCaffeineCacheManager::weightedSize)
+                .tags(tags)
+                .tag("cache", name)
+                .baseUnit(BaseUnits.BYTES)
+                .description("The estimated size of the entries in the cache")
+                .register(meterRegistry);
+        }
+        return cache;
+    }
+
+    private CacheProperties.CacheConfig config(String name) {
+        return cacheProperties.getCaches().getOrDefault(name, cacheProperties.getDefaultConfig());
+    }
+
+    private void checkReloader(String name, CacheProperties.CacheConfig config) {
+        Assert.state(config.getRefreshAfterWrite() == null || reloaders.containsKey(name),
+            () -> "Cache '" + name + "' is configured with refresh-after-write but has no CacheReloader");
+    }
+
+    @Nullable
+    private Long maximumWeight(String name, CacheProperties.CacheConfig config) {
+        if (config.getMaximumWeight() != null) {
+            return config.getMaximumWeight().toBytes();
+        }
+        DataSize memoryBudget = cacheProperties.getMemoryBudget();
+        if (memoryBudget == null || config.getBudgetShare() == null || !cacheProperties.getCaches().containsKey(name)) {
+            return null;
+        }
+        return memoryBudget.toBytes() * config.getBudgetShare() / totalBudgetShares;
+    }
+
+    private static double weightedSize(Cache<Object, Object> cache) {
+        return cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+    }
+}
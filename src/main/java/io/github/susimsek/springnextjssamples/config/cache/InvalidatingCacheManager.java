@@ -0,0 +1,194 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * A {@link CacheManager} that broadcasts the evictions of its caches on a {@link CacheInvalidationBus} and applies
+ * the evictions broadcast by the other instances to its local caches.
+ *
+ * <p>Only evictions are broadcast: {@code evict} with a {@link String} key is sent as is, while any other key, and
+ * {@code clear}, are sent as an invalidation of the whole cache, since the key cannot be matched on the other
+ * instances. Puts are not broadcast, as most of them are read-through fills; a write must evict the entries it
+ * changes, e.g. with {@code @CacheEvict}.</p>
+ *
+ * <p>Usage example:
+ * <pre>
+ *     CacheManager cacheManager = new InvalidatingCacheManager(new CaffeineCacheManager(), cacheInvalidationBus);
+ * </pre>
+ * </p>
+ */
+@Slf4j
+public class InvalidatingCacheManager implements CacheManager {
+
+    private final String id = UUID.randomUUID().toString();
+    private final CacheManager delegate;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache manager decorating the caches of the given delegate.
+     *
+     * @param delegate        the cache manager holding the local caches
+     * @param invalidationBus the bus to broadcast and receive evictions on
+     */
+    public InvalidatingCacheManager(CacheManager delegate, CacheInvalidationBus invalidationBus) {
+        this.delegate = delegate;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Nullable
+    @Override
+    public Cache getCache(@NonNull String name) {
+        Cache cache = caches.get(name);
+        if (cache == null) {
+            Cache target = delegate.getCache(name);
+            if (target == null) {
+                return null;
+            }
+            cache = caches.computeIfAbsent(name, key -> new InvalidatingCache(target));
+        }
+        return cache;
+    }
+
+    @NonNull
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (id.equals(invalidation.origin())) {
+            return;
+        }
+        log.debug("Applying {}", invalidation);
+        if (invalidation.cacheName() == null) {
+            getCacheNames().forEach(name -> clearLocal(name, invalidation.key()));
+        } else {
+            clearLocal(invalidation.cacheName(), invalidation.key());
+        }
+    }
+
+    private void clearLocal(String cacheName, @Nullable String key) {
+        Cache cache = delegate.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key != null) {
+            cache.evict(key);
+        } else {
+            cache.clear();
+        }
+    }
+
+    private void publish(String cacheName, @Nullable Object key) {
+        try {
+            invalidationBus.publish(new CacheInvalidation(id, cacheName, key instanceof String value ? value : null));
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast the invalidation of cache '{}'", cacheName, e);
+        }
+    }
+
+    /**
+     * A cache that broadcasts its evictions.
+     */
+    private final class InvalidatingCache implements Cache {
+
+        private final Cache target;
+
+        private InvalidatingCache(Cache target) {
+            this.target = target;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @NonNull
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Nullable
+        @Override
+        public ValueWrapper get(@NonNull Object key) {
+            return target.get(key);
+        }
+
+        @Nullable
+        @Override
+        public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Nullable
+        @Override
+        public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Nullable
+        @Override
+        public CompletableFuture<?> retrieve(@NonNull Object key) {
+            return target.retrieve(key);
+        }
+
+        @NonNull
+        @Override
+        public <T> CompletableFuture<T> retrieve(@NonNull Object key,
+                                                 @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+            return target.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(@NonNull Object key, @Nullable Object value) {
+            target.put(key, value);
+        }
+
+        @Nullable
+        @Override
+        public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+            return target.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(@NonNull Object key) {
+            target.evict(key);
+            publish(getName(), key);
+        }
+
+        @Override
+        public boolean evictIfPresent(@NonNull Object key) {
+            boolean evicted = target.evictIfPresent(key);
+            publish(getName(), key);
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+            publish(getName(), null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean invalidated = target.invalidate();
+            publish(getName(), null);
+            return invalidated;
+        }
+    }
+}
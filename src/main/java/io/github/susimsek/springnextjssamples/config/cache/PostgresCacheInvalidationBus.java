@@ -0,0 +1,186 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link CacheInvalidationBus} on PostgreSQL {@code LISTEN/NOTIFY}, using the application datasource.
+ *
+ * <p>Invalidations are sent as JSON payloads with {@code pg_notify} in the current transaction, or in a new one if
+ * there is none, so that other instances receive them only once the write that caused them is committed. A listener
+ * thread holds one connection of the pool on which it issues {@code LISTEN} and polls for notifications. When that
+ * connection is lost, the thread reconnects and, since broadcasts may have been missed meanwhile, invalidates all
+ * caches.</p>
+ *
+ * <p>The PostgreSQL driver is accessed through reflection, as it is only on the classpath of the {@code prod}
+ * profile.</p>
+ */
+@Slf4j
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+    private static final String PG_NOTIFICATION_CLASS = "org.postgresql.PGNotification";
+
+    /**
+     * The maximum size of a {@code NOTIFY} payload in the default PostgreSQL configuration.
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    /**
+     * Creates a bus on the given datasource.
+     *
+     * @param dataSource         the datasource
+     * @param transactionManager the transaction manager of the datasource
+     * @param objectMapper       the object mapper used to serialize the payloads
+     * @param config             the invalidation configuration
+     */
+    public PostgresCacheInvalidationBus(DataSource dataSource,
+                                        PlatformTransactionManager transactionManager,
+                                        ObjectMapper objectMapper,
+                                        CacheProperties.InvalidationConfig config) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.channel = config.getChannel();
+        this.pollTimeout = config.getPollTimeout();
+        this.reconnectDelay = config.getReconnectDelay();
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        String payload = toPayload(invalidation);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, payload));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Starts the listener thread.
+     */
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    /**
+     * Stops the listener thread and releases its connection.
+     *
+     * @throws InterruptedException if interrupted while waiting for the thread to stop
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(reconnectDelay.plus(pollTimeout).toMillis());
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.debug("Listening for cache invalidations on channel '{}'", channel);
+                if (reconnecting) {
+                    dispatch(CacheInvalidation.all());
+                }
+                receive(connection);
+            } catch (SQLException | ReflectiveOperationException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the cache invalidation channel '{}', reconnecting in {}", channel, reconnectDelay, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException, ReflectiveOperationException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        Class<?> pgConnectionClass = ClassUtils.forName(PG_CONNECTION_CLASS, classLoader);
+        Method getNotifications = pgConnectionClass.getMethod("getNotifications", int.class);
+        Method getParameter = ClassUtils.forName(PG_NOTIFICATION_CLASS, classLoader).getMethod("getParameter");
+        Object pgConnection = connection.unwrap(pgConnectionClass);
+        int timeoutMillis = (int) pollTimeout.toMillis();
+        while (running) {
+            Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, timeoutMillis);
+            if (notifications != null) {
+                for (Object notification : notifications) {
+                    fromPayload((String) getParameter.invoke(notification));
+                }
+            }
+        }
+    }
+
+    private void fromPayload(String payload) {
+        try {
+            dispatch(objectMapper.readValue(payload, CacheInvalidation.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload, e);
+        }
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply {}", invalidation, e);
+            }
+        }
+    }
+
+    private String toPayload(CacheInvalidation invalidation) {
+        try {
+            String payload = objectMapper.writeValueAsString(invalidation);
+            if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+            return objectMapper.writeValueAsString(
+                new CacheInvalidation(invalidation.origin(), invalidation.cacheName(), null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize " + invalidation, e);
+        }
+    }
+}
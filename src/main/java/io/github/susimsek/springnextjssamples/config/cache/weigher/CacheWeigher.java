@@ -0,0 +1,27 @@
+package io.github.susimsek.springnextjssamples.config.cache.weigher;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.lang.NonNull;
+
+/**
+ * A Caffeine {@link Weigher} weighing each entry by the estimated size of its key and value, in bytes.
+ */
+public class CacheWeigher implements Weigher<Object, Object> {
+
+    private final SizeEstimator sizeEstimator;
+
+    /**
+     * Creates a weigher.
+     *
+     * @param sizeEstimator the estimator of keys and values
+     */
+    public CacheWeigher(SizeEstimator sizeEstimator) {
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    @Override
+    public int weigh(@NonNull Object key, @NonNull Object value) {
+        long size = sizeEstimator.estimate(key) + sizeEstimator.estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, size));
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.susimsek.springnextjssamples.config.cache.weigher;
+
+import jakarta.persistence.Entity;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * A {@link SizeEstimator} for JPA entities that counts the entity and its basic attribute values, such as strings,
+ * numbers and dates, but not its associations: associated entities and collections are usually cached on their own,
+ * and following them could trigger lazy loads. The basic attribute fields of each entity class are resolved once and
+ * cached. An initialized proxy is counted with the entity it wraps; an uninitialized one only by its own size.
+ */
+public class EntitySizeEstimator implements SizeEstimator {
+
+    private static final ClassValue<List<Field>> BASIC_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            return basicFields(type);
+        }
+    };
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof HibernateProxy || value.getClass().isAnnotationPresent(Entity.class);
+    }
+
+    @Override
+    public long estimate(Object value) {
+        long size = ReflectiveSizeEstimator.shallowSizeOf(value);
+        if (value instanceof HibernateProxy) {
+            return Hibernate.isInitialized(value) ? size + estimate(Hibernate.unproxy(value)) : size;
+        }
+        for (Field field : BASIC_FIELDS.get(value.getClass())) {
+            try {
+                Object attribute = field.get(value);
+                if (attribute != null && !(attribute instanceof Enum<?>)) {
+                    size += ReflectiveSizeEstimator.shallowSizeOf(attribute);
+                }
+            } catch (IllegalAccessException e) {
+                // counted in the shallow size only
+            }
+        }
+        return size;
+    }
+
+    private static List<Field> basicFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                Class<?> fieldType = field.getType();
+                if (Modifier.isStatic(field.getModifiers())
+                    || fieldType.isPrimitive()
+                    || Collection.class.isAssignableFrom(fieldType)
+                    || Map.class.isAssignableFrom(fieldType)
+                    || fieldType.isAnnotationPresent(Entity.class)) {
+                    continue;
+                }
+                if (field.trySetAccessible()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return List.copyOf(fields);
+    }
+}
@@ -0,0 +1,249 @@
+package io.github.susimsek.springnextjssamples.config.cache.weigher;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.hibernate.Hibernate;
+
+/**
+ * A {@link SizeEstimator} that walks the object graph of a value and adds up the shallow size of every object it
+ * reaches, assuming a 64-bit JVM with compressed class pointers and references.
+ *
+ * <p>The layout of each class, its shallow size and its reference fields, is computed once and cached. Strings,
+ * arrays, collections, maps and {@link Optional}s are sized without reflection; the fields of JDK classes that are
+ * not open to reflection are counted in the shallow size but not followed. Enums and classes are shared and count
+ * for nothing, and Hibernate proxies and collections that are not initialized are not followed, so that estimating
+ * never triggers a lazy load. The walk stops after {@value #MAX_OBJECTS} objects.</p>
+ */
+public class ReflectiveSizeEstimator implements SizeEstimator {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    private static final int MAX_OBJECTS = 10_000;
+    private static final int STRING_SHALLOW_SIZE = align(OBJECT_HEADER + REFERENCE + 4 + 2);
+    private static final int HASH_MAP_SHALLOW_SIZE = 48;
+    private static final int HASH_MAP_NODE = 32;
+    private static final int COLLECTION_SHALLOW_SIZE = 24;
+    private static final int OPTIONAL_SHALLOW_SIZE = 16;
+
+    private static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected ClassLayout computeValue(Class<?> type) {
+            return ClassLayout.of(type);
+        }
+    };
+
+    private final List<SizeEstimator> estimators;
+
+    /**
+     * Creates an estimator delegating the objects they support to the given estimators.
+     *
+     * @param estimators the specialised estimators, in order of precedence
+     */
+    public ReflectiveSizeEstimator(List<SizeEstimator> estimators) {
+        this.estimators = List.copyOf(estimators);
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return true;
+    }
+
+    @Override
+    public long estimate(Object value) {
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(value);
+        long size = 0;
+        int count = 0;
+        while (!pending.isEmpty() && count < MAX_OBJECTS) {
+            Object current = pending.pop();
+            if (visited.put(current, Boolean.TRUE) == null) {
+                size += visit(current, pending);
+                count++;
+            }
+        }
+        return size;
+    }
+
+    private long visit(Object value, Deque<Object> pending) {
+        if (value instanceof String string) {
+            return sizeOf(string);
+        }
+        if (value instanceof Enum<?> || value instanceof Class<?>) {
+            return 0;
+        }
+        if (!Hibernate.isInitialized(value)) {
+            return shallowSizeOf(value);
+        }
+        for (SizeEstimator estimator : estimators) {
+            if (estimator.supports(value)) {
+                return estimator.estimate(value);
+            }
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return visitArray(value, type.getComponentType(), pending);
+        }
+        if (value instanceof Optional<?> optional) {
+            optional.ifPresent(pending::push);
+            return OPTIONAL_SHALLOW_SIZE;
+        }
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(element -> pushIfPresent(element, pending));
+            return COLLECTION_SHALLOW_SIZE + align(ARRAY_HEADER + (long) REFERENCE * collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((key, element) -> {
+                pushIfPresent(key, pending);
+                pushIfPresent(element, pending);
+            });
+            return sizeOfHashMap(map.size());
+        }
+        ClassLayout layout = LAYOUTS.get(type);
+        for (Field field : layout.referenceFields()) {
+            try {
+                pushIfPresent(field.get(value), pending);
+            } catch (IllegalAccessException e) {
+                // counted in the shallow size only
+            }
+        }
+        return layout.shallowSize();
+    }
+
+    private static long visitArray(Object array, Class<?> componentType, Deque<Object> pending) {
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * sizeOfPrimitive(componentType));
+        }
+        for (Object element : (Object[]) array) {
+            pushIfPresent(element, pending);
+        }
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    private static void pushIfPresent(Object value, Deque<Object> pending) {
+        if (value != null) {
+            pending.push(value);
+        }
+    }
+
+    /**
+     * Returns the shallow size of the given object, i.e. without what it references.
+     *
+     * @param value the object
+     * @return the shallow size, in bytes
+     */
+    static long shallowSizeOf(Object value) {
+        if (value instanceof String string) {
+            return sizeOf(string);
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            long elementSize = componentType.isPrimitive() ? sizeOfPrimitive(componentType) : REFERENCE;
+            return align(ARRAY_HEADER + Array.getLength(value) * elementSize);
+        }
+        return LAYOUTS.get(type).shallowSize();
+    }
+
+    /**
+     * Returns the size of a string, including its backing array; strings with only Latin-1 characters are assumed to
+     * be stored compactly.
+     *
+     * @param string the string
+     * @return the size, in bytes
+     */
+    static long sizeOf(String string) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return STRING_SHALLOW_SIZE + align(ARRAY_HEADER + (long) string.length() * bytesPerChar);
+    }
+
+    /**
+     * Returns the size of a hash map of the given number of entries, without its keys and values.
+     *
+     * @param size the number of entries
+     * @return the size, in bytes
+     */
+    static long sizeOfHashMap(int size) {
+        int tableLength = size == 0 ? 0 : Integer.highestOneBit(Math.max(1, (int) (size / 0.75f)) * 2 - 1);
+        return HASH_MAP_SHALLOW_SIZE + align(ARRAY_HEADER + (long) tableLength * REFERENCE)
+            + (long) size * HASH_MAP_NODE;
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    private static int sizeOfPrimitive(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * The layout of a class.
+     *
+     * @param shallowSize     the size of an instance, without what it references
+     * @param referenceFields the accessible reference fields, including inherited ones
+     */
+    private record ClassLayout(long shallowSize, List<Field> referenceFields) {
+
+        static ClassLayout of(Class<?> type) {
+            long fieldsSize = 0;
+            List<Field> referenceFields = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    Class<?> fieldType = field.getType();
+                    if (fieldType.isPrimitive()) {
+                        fieldsSize += sizeOfPrimitive(fieldType);
+                        continue;
+                    }
+                    fieldsSize += REFERENCE;
+                    if (trySetAccessible(field)) {
+                        referenceFields.add(field);
+                    }
+                }
+            }
+            return new ClassLayout(align(OBJECT_HEADER + fieldsSize), List.copyOf(referenceFields));
+        }
+
+        private static boolean trySetAccessible(Field field) {
+            try {
+                return field.trySetAccessible();
+            } catch (SecurityException e) {
+                return false;
+            }
+        }
+    }
+}
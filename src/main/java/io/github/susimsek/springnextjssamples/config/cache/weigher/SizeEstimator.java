@@ -0,0 +1,29 @@
+package io.github.susimsek.springnextjssamples.config.cache.weigher;
+
+/**
+ * Estimates the heap footprint of cached values, in bytes, for caches bounded by a maximum weight.
+ *
+ * <p>Estimators are consulted in order by the {@link ReflectiveSizeEstimator} for every object it reaches, the first
+ * one that supports the object estimating it and what it references; objects that no estimator supports are walked
+ * reflectively. Application beans of this type are consulted before the built-in estimators.</p>
+ *
+ * @see CacheWeigher
+ */
+public interface SizeEstimator {
+
+    /**
+     * Indicates whether this estimator can estimate the given object.
+     *
+     * @param value the object
+     * @return {@code true} if this estimator supports the object
+     */
+    boolean supports(Object value);
+
+    /**
+     * Estimates the size of the given object and of what it references.
+     *
+     * @param value the object
+     * @return the estimated size, in bytes
+     */
+    long estimate(Object value);
+}
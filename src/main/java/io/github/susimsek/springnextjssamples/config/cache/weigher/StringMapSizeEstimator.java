@@ -0,0 +1,34 @@
+package io.github.susimsek.springnextjssamples.config.cache.weigher;
+
+import java.util.Map;
+
+/**
+ * A {@link SizeEstimator} for maps of strings to strings, such as message bundles, sized as hash maps without
+ * walking them reflectively.
+ */
+public class StringMapSizeEstimator implements SizeEstimator {
+
+    @Override
+    public boolean supports(Object value) {
+        if (!(value instanceof Map<?, ?> map)) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long estimate(Object value) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        long size = ReflectiveSizeEstimator.sizeOfHashMap(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            size += ReflectiveSizeEstimator.sizeOf((String) entry.getKey())
+                + ReflectiveSizeEstimator.sizeOf((String) entry.getValue());
+        }
+        return size;
+    }
+}
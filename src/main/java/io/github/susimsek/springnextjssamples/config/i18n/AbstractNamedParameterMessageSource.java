@@ -2,54 +2,40 @@ package io.github.susimsek.springnextjssamples.config.i18n;
 
 import java.util.Locale;
 import java.util.Map;
-import java.util.ResourceBundle;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.context.support.AbstractResourceBasedMessageSource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 
 /**
  * Custom MessageSource implementation to support named parameters in messages.
- * This class extends {@link ResourceBundleMessageSource} to provide the ability
+ * This class extends {@link AbstractResourceBasedMessageSource} to provide the ability
  * to replace placeholders in the form of {paramName} with their corresponding values
  * from a provided map.
  */
 @Slf4j
 @NoArgsConstructor
 public abstract class AbstractNamedParameterMessageSource
-    extends ResourceBundleMessageSource implements ParameterMessageSource {
+    extends AbstractResourceBasedMessageSource implements ParameterMessageSource {
 
     /**
-     * Pattern to match named parameters in the format {paramName}.
-     * This pattern matches sequences that conform to Java variable name constraints.
-     */
-    private static final Pattern NAMED_PATTERN = Pattern.compile("\\{([a-zA-Z_]\\w*)}");
-
-    /**
-     * Replaces named parameters in the message template with their corresponding values.
+     * Resolves the message of the given code as a named-parameter template.
+     * <p>
+     * This implementation tokenizes the resolved message on every call; subclasses that hold their messages in memory
+     * should override it to return a template tokenized once per code and locale.
+     * </p>
      *
-     * @param messageTemplate the message containing named parameters
-     * @param args            the map containing parameter names and their values
-     * @return the message with named parameters replaced by their values
+     * @param code   the code of the message
+     * @param locale the locale to resolve the message for
+     * @return the template of the message
+     * @throws NoSuchMessageException if the message with the specified code is not found
      */
-    private String replaceNamedParameters(String messageTemplate, Map<String, Object> args) {
-        Matcher matcher = NAMED_PATTERN.matcher(messageTemplate);
-        StringBuilder result = new StringBuilder();
-        while (matcher.find()) {
-            String paramName = matcher.group(1);
-            Object paramValue = args.get(paramName);
-            if (paramValue != null) {
-                matcher.appendReplacement(result, paramValue.toString());
-            }
-        }
-        matcher.appendTail(result);
-        return result.toString();
+    protected NamedParameterTemplate resolveNamedParameterTemplate(String code,
+                                                                   Locale locale) throws NoSuchMessageException {
+        return NamedParameterTemplate.compile(super.getMessage(code, null, locale));
     }
 
     /**
@@ -92,25 +78,9 @@ public abstract class AbstractNamedParameterMessageSource
     public String getMessageWithNamedArgs(String code,
                                           @Nullable Map<String, Object> args,
                                           Locale locale) throws NoSuchMessageException {
-        String message = super.getMessage(code, null, locale);
-        if (!CollectionUtils.isEmpty(args)) {
-            message = replaceNamedParameters(message, args);
+        if (CollectionUtils.isEmpty(args)) {
+            return super.getMessage(code, null, locale);
         }
-        return message;
-    }
-
-    /**
-     * Retrieve messages starting with the given prefix.
-     *
-     * @param prefix the prefix of the messages to retrieve
-     * @param locale the locale for which to retrieve the messages
-     * @return a map of messages with keys starting with the given prefix
-     */
-    @Override
-    public Map<String, String> getMessagesStartingWith(String prefix, Locale locale) {
-        ResourceBundle bundle = doGetBundle(getBasenameSet().iterator().next(), locale);
-        return bundle.keySet().stream()
-            .filter(key -> key.startsWith(prefix))
-            .collect(Collectors.toMap(key -> key, key -> getMessage(key, null, locale)));
+        return resolveNamedParameterTemplate(code, locale).render(args);
     }
 }
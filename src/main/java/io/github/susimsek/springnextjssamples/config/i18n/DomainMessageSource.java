@@ -1,27 +1,61 @@
 package io.github.susimsek.springnextjssamples.config.i18n;
 
 import io.github.susimsek.springnextjssamples.service.MessageService;
-import java.util.Collections;
-import java.util.Enumeration;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.lang.NonNull;
-import org.springframework.util.Assert;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
 /**
  * A custom message source that retrieves messages from a database.
  * This class extends {@link AbstractNamedParameterMessageSource} and uses a
  * {@link MessageService} to fetch messages based on locale.
+ * <p>
+ * All messages are loaded in bulk into an immutable {@link MessageCatalog}, whose locale fallbacks are resolved at
+ * load time. Lookups read the current catalog without locking; {@link #refresh()} builds a new catalog and swaps it
+ * in atomically, so readers see either the previous or the new messages, never a mix.
+ * </p>
+ * <p>
+ * Each catalog is tagged with the {@link MessageVersion} it was loaded at. A refresh first reads the current version,
+ * a single aggregate query, and does nothing if it has not changed. Otherwise only the messages created or modified
+ * since the previous version are read and merged into a new catalog; a full reload is done when the merged messages
+ * do not add up to the new version, e.g. after a delete. Since changes that move neither the count nor the latest
+ * modification date, such as updates that do not set {@code updated_at}, are invisible to the version, a full reload
+ * is also done once {@code fullReloadInterval} has elapsed since the last one. Loads are single-flight: a refresh
+ * started while another one is running is skipped, and threads that need the first catalog wait for the one being
+ * loaded.
+ * </p>
  */
+@Slf4j
 public class DomainMessageSource extends AbstractNamedParameterMessageSource {
 
-    private final MessageSourceControl control;
-    private long cacheMillis = -1L;
+    /**
+     * The default interval between full reloads, the time-to-live messages were cached for before incremental
+     * reloads.
+     */
+    public static final Duration DEFAULT_FULL_RELOAD_INTERVAL = Duration.ofHours(1);
+
+    private final MessageService messageService;
+    private final Lock loadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    /**
+     * The interval after which a refresh reloads all messages, even if their version has not changed.
+     */
+    @Setter
+    private Duration fullReloadInterval = DEFAULT_FULL_RELOAD_INTERVAL;
 
     /**
      * Constructs a new DatabaseMessageSource.
@@ -30,173 +64,164 @@ public class DomainMessageSource extends AbstractNamedParameterMessageSource {
      */
     public DomainMessageSource(MessageService messageService) {
         this.setDefaultEncoding("UTF-8");
-        this.control = new MessageSourceControl(messageService);
+        this.messageService = messageService;
+    }
+
+    /**
+     * Reloads the messages changed since the last load, if any, and swaps them in. If the reload fails, the previous
+     * messages are kept. Does nothing if another load is in progress.
+     */
+    public void refresh() {
+        if (!loadLock.tryLock()) {
+            return;
+        }
+        try {
+            Snapshot current = this.snapshot;
+            this.snapshot = current != null ? update(current) : load();
+        } catch (RuntimeException e) {
+            if (this.snapshot == null) {
+                throw e;
+            }
+            log.warn("Failed to refresh messages, keeping the previous ones", e);
+        } finally {
+            loadLock.unlock();
+        }
     }
 
     /**
-     * Sets the cache duration in milliseconds.
+     * Retrieve messages starting with the given prefix.
      *
-     * @param cacheMillis the cache duration in milliseconds
+     * @param prefix the prefix of the messages to retrieve
+     * @param locale the locale for which to retrieve the messages
+     * @return a map of messages with keys starting with the given prefix
      */
     @Override
-    public void setCacheMillis(long cacheMillis) {
-        this.cacheMillis = cacheMillis;
+    public Map<String, String> getMessagesStartingWith(String prefix, Locale locale) {
+        return getCatalog().getTemplates(resolveLocale(locale)).keySet().stream()
+            .filter(key -> key.startsWith(prefix))
+            .collect(Collectors.toMap(key -> key, key -> getMessage(key, null, locale)));
     }
 
     /**
-     * Gets the cache duration in milliseconds.
+     * Resolves the given message code as a message without arguments.
      *
-     * @return the cache duration in milliseconds
+     * @param code   the code of the message
+     * @param locale the locale to resolve the message for
+     * @return the message, or {@code null} if not found
      */
+    @Nullable
     @Override
-    protected long getCacheMillis() {
-        return this.cacheMillis;
+    protected String resolveCodeWithoutArguments(@NonNull String code, @NonNull Locale locale) {
+        MessageTemplate template = getCatalog().getTemplate(code, resolveLocale(locale));
+        return template != null ? template.getMessage() : null;
     }
 
     /**
-     * Retrieves a resource bundle for the given base name and locale.
+     * Resolves the given message code as a message format.
      *
-     * @param basename the base name of the resource bundle
-     * @param locale   the locale for which the resource bundle should be retrieved
-     * @return the resource bundle
-     * @throws MissingResourceException if no resource bundle for the specified base name can be found
+     * @param code   the code of the message
+     * @param locale the locale to resolve the message for
+     * @return the message format, or {@code null} if not found
      */
-    @NonNull
+    @Nullable
     @Override
-    protected ResourceBundle doGetBundle(@NonNull String basename,
-                                         @NonNull Locale locale) throws MissingResourceException {
-        ClassLoader classLoader = this.getBundleClassLoader();
-        Assert.state(classLoader != null, "No bundle ClassLoader set");
-        return ResourceBundle.getBundle(basename, locale, classLoader, control);
+    protected MessageFormat resolveCode(@NonNull String code, @NonNull Locale locale) {
+        MessageTemplate template = getCatalog().getTemplate(code, resolveLocale(locale));
+        return template != null ? template.getMessageFormat() : null;
     }
 
     /**
-     * A custom resource bundle that retrieves messages from a map.
+     * Resolves the named-parameter template of the given message code from the catalog, so that each message is
+     * tokenized once per catalog. Messages not in the catalog, and all messages when
+     * {@link #isAlwaysUseMessageFormat()} is set, are resolved as in the superclass.
+     *
+     * @param code   the code of the message
+     * @param locale the locale to resolve the message for
+     * @return the template of the message
+     * @throws NoSuchMessageException if the message with the specified code is not found
      */
-    private static class DatabaseResourceBundle extends ResourceBundle {
-
-        private final Map<String, String> messages;
-
-        /**
-         * Constructs a new DatabaseResourceBundle.
-         *
-         * @param messages the map of messages
-         */
-        public DatabaseResourceBundle(Map<String, String> messages) {
-            this.messages = messages;
+    @Override
+    protected NamedParameterTemplate resolveNamedParameterTemplate(String code,
+                                                                   Locale locale) throws NoSuchMessageException {
+        if (!isAlwaysUseMessageFormat()) {
+            MessageTemplate template = getCatalog().getTemplate(code, resolveLocale(locale));
+            if (template != null) {
+                return template.getNamedParameterTemplate();
+            }
         }
+        return super.resolveNamedParameterTemplate(code, locale);
+    }
 
-        /**
-         * Retrieves the message for the given key.
-         *
-         * @param key the key for the desired message
-         * @return the message for the given key
-         */
-        @Override
-        protected Object handleGetObject(@NonNull String key) {
-            return messages.get(key);
+    private MessageCatalog getCatalog() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                current = this.snapshot;
+                if (current == null) {
+                    current = load();
+                    this.snapshot = current;
+                }
+            } finally {
+                loadLock.unlock();
+            }
         }
+        return current.catalog();
+    }
 
-        /**
-         * Gets the keys for all messages.
-         *
-         * @return an enumeration of all message keys
-         */
-        @NonNull
-        @Override
-        public Enumeration<String> getKeys() {
-            return Collections.enumeration(messages.keySet());
-        }
+    private Snapshot load() {
+        Instant loadedAt = Instant.now();
+        MessageVersion version = messageService.getVersion();
+        return snapshot(messageService.getAllMessages(), version, loadedAt);
     }
 
-    /**
-     * A custom control class for managing resource bundles.
-     */
-    private class MessageSourceControl extends ResourceBundle.Control {
-        private final MessageService messageService;
-        private final Map<Locale, Long> lastUpdateCache = new ConcurrentHashMap<>();
-
-        /**
-         * Constructs a new MessageSourceControl.
-         *
-         * @param messageService the service to fetch messages from the database
-         */
-        public MessageSourceControl(MessageService messageService) {
-            this.messageService = messageService;
+    private Snapshot update(Snapshot current) {
+        if (!current.loadedAt().plus(fullReloadInterval).isAfter(Instant.now())) {
+            return load();
         }
-
-        /**
-         * Creates a new resource bundle for the given base name and locale.
-         *
-         * @param baseName the base name of the resource bundle
-         * @param locale   the locale for which the resource bundle should be created
-         * @param format   the format of the resource bundle
-         * @param loader   the class loader to use
-         * @param reload   whether to reload the resource bundle
-         * @return the resource bundle
-         */
-        @Override
-        public ResourceBundle newBundle(String baseName,
-                                        Locale locale,
-                                        String format,
-                                        ClassLoader loader,
-                                        boolean reload) {
-            String language = locale.getLanguage();
-            if (!StringUtils.hasText(language)) {
-                language = LocaleContextHolder.getLocale().getLanguage();
-            }
-            Map<String, String> messages = messageService.getMessages(language);
-            return new DatabaseResourceBundle(messages);
+        MessageVersion version = messageService.getVersion();
+        if (version.equals(current.version())) {
+            return current;
         }
-
-        /**
-         * Gets the time-to-live for the resource bundle cache.
-         *
-         * @param baseName the base name of the resource bundle
-         * @param locale   the locale for which the resource bundle should be cached
-         * @return the time-to-live in milliseconds
-         */
-        @Override
-        public long getTimeToLive(String baseName, Locale locale) {
-            return getCacheMillis() >= 0L ? getCacheMillis() : super.getTimeToLive(baseName, locale);
+        Instant since = current.version().lastModifiedDate();
+        if (since == null || version.count() < current.version().count()) {
+            return load();
         }
-
-        /**
-         * Gets the fallback locale for the given base name and locale.
-         *
-         * @param baseName the base name of the resource bundle
-         * @param locale   the locale for which the fallback should be found
-         * @return the fallback locale
-         */
-        @Override
-        public Locale getFallbackLocale(String baseName, Locale locale) {
-            Locale defaultLocale = getDefaultLocale();
-            return defaultLocale != null && !defaultLocale.equals(locale) ? defaultLocale : null;
+        Map<String, Map<String, String>> changed = messageService.getMessagesChangedSince(since);
+        Map<String, Map<String, String>> messages = new HashMap<>(current.messages());
+        changed.forEach((locale, localeMessages) -> {
+            Map<String, String> merged = new HashMap<>(messages.getOrDefault(locale, Map.of()));
+            merged.putAll(localeMessages);
+            messages.put(locale, merged);
+        });
+        if (count(messages) != version.count()) {
+            return load();
         }
+        log.debug("Reloaded {} changed messages", count(changed));
+        return snapshot(messages, version, current.loadedAt());
+    }
 
-        /**
-         * Determines whether the resource bundle needs to be reloaded.
-         *
-         * @param baseName the base name of the resource bundle
-         * @param locale   the locale for which the resource bundle should be checked
-         * @param format   the format of the resource bundle
-         * @param loader   the class loader to use
-         * @param bundle   the resource bundle
-         * @param loadTime the load time of the resource bundle
-         * @return true if the resource bundle needs to be reloaded, false otherwise
-         */
-        @Override
-        public boolean needsReload(String baseName, Locale locale, String format, ClassLoader loader,
-                                   ResourceBundle bundle, long loadTime) {
-            Long lastUpdateTime = lastUpdateCache.get(locale);
-            long currentTime = System.currentTimeMillis();
-
-            if (lastUpdateTime == null || currentTime - lastUpdateTime > getTimeToLive(baseName, locale)) {
-                lastUpdateCache.put(locale, currentTime);
-                return true;
-            }
+    private Snapshot snapshot(Map<String, Map<String, String>> messages, MessageVersion version, Instant loadedAt) {
+        return new Snapshot(MessageCatalog.of(messages, getDefaultLocale()), messages, version, loadedAt);
+    }
 
-            return false;
-        }
+    private static long count(Map<String, Map<String, String>> messages) {
+        return messages.values().stream().mapToLong(Map::size).sum();
+    }
+
+    private Locale resolveLocale(Locale locale) {
+        return StringUtils.hasText(locale.getLanguage()) ? locale : LocaleContextHolder.getLocale();
+    }
+
+    /**
+     * The catalog, with the messages it was built from and the version they were loaded at.
+     *
+     * @param catalog  the catalog
+     * @param messages the messages by code, by locale tag
+     * @param version  the version of the messages
+     * @param loadedAt the start of the last full load the messages derive from
+     */
+    private record Snapshot(MessageCatalog catalog, Map<String, Map<String, String>> messages,
+                            MessageVersion version, Instant loadedAt) {
     }
 }
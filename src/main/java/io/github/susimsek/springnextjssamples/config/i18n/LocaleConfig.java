@@ -4,14 +4,17 @@ import io.github.susimsek.springnextjssamples.service.MessageService;
 import jakarta.validation.MessageInterpolator;
 import jakarta.validation.Validator;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Locale;
 import org.hibernate.validator.messageinterpolation.ResourceBundleMessageInterpolator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
 import org.springframework.boot.autoconfigure.web.WebProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.servlet.LocaleResolver;
@@ -49,8 +52,9 @@ public class LocaleConfig {
     }
 
     @Bean
-    public ParameterMessageSource messageSource(MessageSourceProperties properties,
-                                                MessageService messageService) {
+    public DomainMessageSource messageSource(MessageSourceProperties properties,
+                                                MessageService messageService,
+                                                ObjectProvider<TaskScheduler> taskScheduler) {
         DomainMessageSource messageSource = new DomainMessageSource(messageService);
         if (StringUtils.hasText(properties.getBasename())) {
             messageSource.setBasenames(StringUtils
@@ -63,6 +67,8 @@ public class LocaleConfig {
         Duration cacheDuration = properties.getCacheDuration();
         if (cacheDuration != null) {
             messageSource.setCacheMillis(cacheDuration.toMillis());
+            taskScheduler.ifAvailable(scheduler -> scheduler.scheduleWithFixedDelay(
+                messageSource::refresh, Instant.now().plus(cacheDuration), cacheDuration));
         }
         messageSource.setAlwaysUseMessageFormat(properties.isAlwaysUseMessageFormat());
         messageSource.setUseCodeAsDefaultMessage(properties.isUseCodeAsDefaultMessage());;
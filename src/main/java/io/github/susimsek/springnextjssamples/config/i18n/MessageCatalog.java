@@ -0,0 +1,150 @@
+package io.github.susimsek.springnextjssamples.config.i18n;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Immutable snapshot of all messages, with one map of {@link MessageTemplate}s per locale.
+ *
+ * <p>Fallbacks are resolved when the catalog is built: the map of a locale with a region or variant, e.g.
+ * {@code tr_TR}, already contains the messages of its language, {@code tr}, and every map contains the messages of
+ * the default locale, if any.</p>
+ *
+ * <p>Requested locales are mapped to these maps through a resolution table that is seeded with the locales of the
+ * catalog. A locale not in the table, such as {@code en_US} or {@code zh_Hant_TW} sent by a browser, is resolved once
+ * by trying the locale without extensions, its language and region, its language and script, and its language, before
+ * falling back to the default locale; the result is then added to the table, up to {@value #MAX_RESOLVED_LOCALES}
+ * entries. A lookup is thus a hash lookup of the locale followed by a hash lookup of the code.</p>
+ */
+public final class MessageCatalog {
+
+    private static final int MAX_RESOLVED_LOCALES = 256;
+
+    private static final MessageCatalog EMPTY = new MessageCatalog(Map.of(), Map.of());
+
+    private final Map<Locale, Map<String, MessageTemplate>> messages;
+    private final Map<String, MessageTemplate> defaultMessages;
+    private final Map<Locale, Map<String, MessageTemplate>> resolvedMessages;
+
+    private MessageCatalog(Map<Locale, Map<String, MessageTemplate>> messages,
+                           Map<String, MessageTemplate> defaultMessages) {
+        this.messages = messages;
+        this.defaultMessages = defaultMessages;
+        this.resolvedMessages = new ConcurrentHashMap<>(messages);
+    }
+
+    /**
+     * Returns a catalog without messages.
+     *
+     * @return the empty catalog
+     */
+    public static MessageCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a catalog from the messages of each locale.
+     *
+     * @param messagesByLocale the messages by code, by locale tag such as {@code tr} or {@code tr_TR}
+     * @param defaultLocale    the locale whose messages every locale falls back to, may be {@code null}
+     * @return the catalog
+     */
+    public static MessageCatalog of(Map<String, Map<String, String>> messagesByLocale,
+                                    @Nullable Locale defaultLocale) {
+        Map<Locale, Map<String, String>> ownMessages = new HashMap<>();
+        messagesByLocale.forEach((tag, localeMessages) -> {
+            Locale locale = StringUtils.parseLocale(tag);
+            if (locale != null) {
+                ownMessages.computeIfAbsent(locale, key -> new HashMap<>()).putAll(localeMessages);
+            }
+        });
+
+        Map<Locale, Map<String, MessageTemplate>> messages = new HashMap<>();
+        ownMessages.keySet().forEach(locale ->
+            messages.put(locale, templates(merge(ownMessages, locale, defaultLocale), locale)));
+        Map<String, MessageTemplate> defaultMessages = defaultLocale != null
+            ? templates(merge(ownMessages, defaultLocale, null), defaultLocale)
+            : Map.of();
+        return new MessageCatalog(Map.copyOf(messages), defaultMessages);
+    }
+
+    /**
+     * Returns the template of a message.
+     *
+     * @param code   the code of the message
+     * @param locale the locale
+     * @return the template, or {@code null} if the message is not defined for the locale nor its fallbacks
+     */
+    @Nullable
+    public MessageTemplate getTemplate(String code, Locale locale) {
+        return getTemplates(locale).get(code);
+    }
+
+    /**
+     * Returns the templates of all messages of a locale, including those of its fallbacks.
+     *
+     * @param locale the locale
+     * @return the templates by code
+     */
+    public Map<String, MessageTemplate> getTemplates(Locale locale) {
+        Map<String, MessageTemplate> localeMessages = resolvedMessages.get(locale);
+        if (localeMessages == null) {
+            localeMessages = resolve(locale);
+            if (resolvedMessages.size() < MAX_RESOLVED_LOCALES) {
+                resolvedMessages.putIfAbsent(locale, localeMessages);
+            }
+        }
+        return localeMessages;
+    }
+
+    private Map<String, MessageTemplate> resolve(Locale locale) {
+        for (Locale candidate : candidateLocales(locale)) {
+            Map<String, MessageTemplate> localeMessages = messages.get(candidate);
+            if (localeMessages != null) {
+                return localeMessages;
+            }
+        }
+        return defaultMessages;
+    }
+
+    private static Set<Locale> candidateLocales(Locale locale) {
+        String language = locale.getLanguage();
+        Set<Locale> candidates = new LinkedHashSet<>();
+        candidates.add(locale.stripExtensions());
+        if (!locale.getCountry().isEmpty()) {
+            candidates.add(Locale.of(language, locale.getCountry()));
+        }
+        if (!locale.getScript().isEmpty()) {
+            candidates.add(new Locale.Builder().setLanguage(language).setScript(locale.getScript()).build());
+        }
+        candidates.add(Locale.of(language));
+        return candidates;
+    }
+
+    private static Map<String, String> merge(Map<Locale, Map<String, String>> ownMessages,
+                                             Locale locale, @Nullable Locale defaultLocale) {
+        Map<String, String> merged = new HashMap<>();
+        if (defaultLocale != null && !defaultLocale.getLanguage().equals(locale.getLanguage())) {
+            merged.putAll(merge(ownMessages, defaultLocale, null));
+        }
+        Locale language = Locale.of(locale.getLanguage());
+        if (!language.equals(locale)) {
+            merged.putAll(ownMessages.getOrDefault(language, Map.of()));
+        }
+        merged.putAll(ownMessages.getOrDefault(locale, Map.of()));
+        return merged;
+    }
+
+    private static Map<String, MessageTemplate> templates(Map<String, String> localeMessages, Locale locale) {
+        Map<String, MessageTemplate> templates = HashMap.newHashMap(localeMessages.size());
+        localeMessages.forEach((code, message) -> templates.put(code, new MessageTemplate(message, locale)));
+        return Collections.unmodifiableMap(templates);
+    }
+}
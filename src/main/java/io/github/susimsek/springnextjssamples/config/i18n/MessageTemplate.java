@@ -0,0 +1,69 @@
+package io.github.susimsek.springnextjssamples.config.i18n;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+/**
+ * A message of the {@link MessageCatalog} for a given locale.
+ *
+ * <p>The {@link MessageFormat} used to render positional arguments is parsed once, on first use, and shared by all
+ * callers, which synchronize on it while formatting as {@link org.springframework.context.support.AbstractMessageSource}
+ * does. The {@link NamedParameterTemplate} used to render named arguments is likewise tokenized once, on first
+ * use.</p>
+ */
+public final class MessageTemplate {
+
+    private final String message;
+    private final Locale locale;
+    private volatile MessageFormat messageFormat;
+    private volatile NamedParameterTemplate namedParameterTemplate;
+
+    /**
+     * Creates a template for the given message.
+     *
+     * @param message the message
+     * @param locale  the locale of the message
+     */
+    public MessageTemplate(String message, Locale locale) {
+        this.message = message;
+        this.locale = locale;
+    }
+
+    /**
+     * Returns the message as stored.
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the message format of the message, parsing it on first call.
+     *
+     * @return the message format
+     * @throws IllegalArgumentException if the message is not a valid message format pattern
+     */
+    public MessageFormat getMessageFormat() {
+        MessageFormat result = messageFormat;
+        if (result == null) {
+            result = new MessageFormat(message, locale);
+            messageFormat = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the named-parameter template of the message, tokenizing it on first call.
+     *
+     * @return the named-parameter template
+     */
+    public NamedParameterTemplate getNamedParameterTemplate() {
+        NamedParameterTemplate result = namedParameterTemplate;
+        if (result == null) {
+            result = NamedParameterTemplate.compile(message);
+            namedParameterTemplate = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.susimsek.springnextjssamples.config.i18n;
+
+import java.time.Instant;
+import org.springframework.lang.Nullable;
+
+/**
+ * A watermark of the {@code message} table, cheap enough to be polled: the number of messages and the latest
+ * creation or modification date among them. Any insert or update made through the application moves the date
+ * forward, and any delete changes the count, unless it is offset by as many inserts. Updates that leave
+ * {@code updated_at} unchanged, or that commit with a date older than the latest one, are not reflected.
+ *
+ * @param count            the number of messages
+ * @param lastModifiedDate the latest creation or modification date, or {@code null} if there are no messages
+ */
+public record MessageVersion(long count, @Nullable Instant lastModifiedDate) {
+}
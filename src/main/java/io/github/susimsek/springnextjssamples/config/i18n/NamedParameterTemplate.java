@@ -0,0 +1,99 @@
+package io.github.susimsek.springnextjssamples.config.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message tokenized into literal segments and named placeholders in the form {@code {paramName}}, where the
+ * name starts with a letter or an underscore followed by letters, digits or underscores.
+ *
+ * <p>Rendering appends the segments to a pre-sized {@link StringBuilder}; parameter values are inserted literally, so
+ * {@code $} and {@code \} in user data are kept as is. Placeholders without a value are left unchanged.</p>
+ */
+public final class NamedParameterTemplate {
+
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    private final String message;
+
+    /**
+     * The literal segments, one more than the placeholders: {@code literals[i]} precedes {@code names[i]}.
+     */
+    private final String[] literals;
+    private final String[] names;
+
+    private NamedParameterTemplate(String message, String[] literals, String[] names) {
+        this.message = message;
+        this.literals = literals;
+        this.names = names;
+    }
+
+    /**
+     * Tokenizes the given message.
+     *
+     * @param message the message containing named placeholders
+     * @return the template
+     */
+    public static NamedParameterTemplate compile(String message) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int open = message.indexOf('{');
+        while (open >= 0) {
+            int nameEnd = nameEnd(message, open + 1);
+            if (nameEnd > open + 1 && nameEnd < message.length() && message.charAt(nameEnd) == '}') {
+                literals.add(message.substring(literalStart, open));
+                names.add(message.substring(open + 1, nameEnd));
+                literalStart = nameEnd + 1;
+                open = message.indexOf('{', literalStart);
+            } else {
+                open = message.indexOf('{', open + 1);
+            }
+        }
+        literals.add(message.substring(literalStart));
+        return new NamedParameterTemplate(message, literals.toArray(String[]::new), names.toArray(String[]::new));
+    }
+
+    /**
+     * Renders the message with the given parameter values.
+     *
+     * @param args the parameter values by name
+     * @return the rendered message
+     */
+    public String render(Map<String, Object> args) {
+        if (names.length == 0) {
+            return message;
+        }
+        StringBuilder result = new StringBuilder(message.length() + names.length * ESTIMATED_VALUE_LENGTH);
+        for (int i = 0; i < names.length; i++) {
+            result.append(literals[i]);
+            Object value = args.get(names[i]);
+            if (value != null) {
+                result.append(value);
+            } else {
+                result.append('{').append(names[i]).append('}');
+            }
+        }
+        return result.append(literals[names.length]).toString();
+    }
+
+    private static int nameEnd(String message, int start) {
+        if (start >= message.length() || !isNameStart(message.charAt(start))) {
+            return start;
+        }
+        int end = start + 1;
+        while (end < message.length() && isNamePart(message.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isNamePart(char c) {
+        return isNameStart(c) || (c >= '0' && c <= '9');
+    }
+}
@@ -17,6 +17,8 @@ import io.github.susimsek.springnextjssamples.aspect.LoggingAspect;
 import io.github.susimsek.springnextjssamples.config.RequestMatcherConfig;
 import io.github.susimsek.springnextjssamples.config.logging.formatter.JsonLogFormatter;
 import io.github.susimsek.springnextjssamples.config.logging.formatter.LogFormatter;
+import io.github.susimsek.springnextjssamples.config.logging.handler.HttpLogPipeline;
+import io.github.susimsek.springnextjssamples.config.logging.handler.LogSampler;
 import io.github.susimsek.springnextjssamples.config.logging.handler.HttpLoggingHandler;
 import io.github.susimsek.springnextjssamples.config.logging.handler.LoggingHandler;
 import io.github.susimsek.springnextjssamples.config.logging.strategy.DefaultObfuscationStrategy;
@@ -26,6 +28,7 @@ import io.github.susimsek.springnextjssamples.config.logging.utils.Obfuscator;
 import io.github.susimsek.springnextjssamples.config.logging.wrapper.HttpLoggingWrapper;
 import io.github.susimsek.springnextjssamples.enums.FilterOrder;
 import io.github.susimsek.springnextjssamples.web.filter.LoggingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
@@ -37,6 +40,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.http.MediaType;
 
 @Configuration
 @EnableConfigurationProperties(LoggingProperties.class)
@@ -53,8 +57,11 @@ public class LoggingConfig {
 
     @Configuration
     @ConditionalOnProperty(name = "logging.http.enabled", havingValue = "true", matchIfMissing = true)
+    @RequiredArgsConstructor
     static class HttpLoggingConfig {
 
+        private final LoggingProperties loggingProperties;
+
         @Bean
         public HttpLoggingWrapper httpLoggingWrapper(LoggingHandler loggingHandler) {
             return new HttpLoggingWrapper(loggingHandler);
@@ -62,7 +69,10 @@ public class LoggingConfig {
 
         @Bean
         public LoggingFilter loggingFilter(LoggingHandler loggingHandler) {
-            LoggingFilter loggingFilter = new LoggingFilter(loggingHandler);
+            LoggingProperties.Http http = loggingProperties.getHttp();
+            LoggingFilter loggingFilter = new LoggingFilter(loggingHandler,
+                (int) http.getMaxPayloadSize().toBytes(),
+                MediaType.parseMediaTypes(http.getExcludedContentTypes()));
             loggingFilter.setOrder(FilterOrder.LOGGING.order());
             return loggingFilter;
         }
@@ -78,10 +88,13 @@ public class LoggingConfig {
     public LoggingHandler loggingHandler(LogFormatter logFormatter,
                                          Obfuscator obfuscator,
                                          RequestMatcherConfig requestMatcherConfig,
-                                         Tracer tracer) {
+                                         Tracer tracer,
+                                         ObjectProvider<HttpLogPipeline> httpLogPipeline) {
         var builder = HttpLoggingHandler.builder(tracer, logFormatter, obfuscator)
             .httpLogLevel(loggingProperties.getHttp().getLogLevel())
             .methodLogLevel(loggingProperties.getAspect().getLogLevel())
+            .pipeline(httpLogPipeline.getIfAvailable())
+            .sampler(new LogSampler(tracer, loggingProperties.getSampling()))
             .requestMatchers(requestMatcherConfig.staticResourcePaths()).permitAll()
             .requestMatchers(requestMatcherConfig.swaggerResourcePaths()).permitAll()
             .requestMatchers(requestMatcherConfig.actuatorEndpoints()).permitAll()
@@ -95,10 +108,16 @@ public class LoggingConfig {
             .build();
     }
 
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(name = "logging.http.pipeline.enabled", havingValue = "true", matchIfMissing = true)
+    public HttpLogPipeline httpLogPipeline(MeterRegistry meterRegistry) {
+        return new HttpLogPipeline(loggingProperties.getHttp().getPipeline(), meterRegistry);
+    }
+
     @Bean
     public LogFormatter logFormatter(ObjectProvider<ObjectMapper> objectMapperProvider) {
         ObjectMapper objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
-        return new JsonLogFormatter(objectMapper);
+        return new JsonLogFormatter(objectMapper, loggingProperties.getFormat());
     }
 
     @Bean
@@ -106,7 +125,7 @@ public class LoggingConfig {
         if (loggingProperties.getObfuscate().isEnabled()) {
             return new DefaultObfuscationStrategy(loggingProperties, objectMapper);
         } else {
-            return new NoOpObfuscationStrategy();
+            return new NoOpObfuscationStrategy(objectMapper);
         }
     }
 
@@ -1,11 +1,15 @@
 package io.github.susimsek.springnextjssamples.config.logging;
 
 import io.github.susimsek.springnextjssamples.config.logging.enums.HttpLogLevel;
+import io.github.susimsek.springnextjssamples.config.logging.enums.LogFormat;
 import io.github.susimsek.springnextjssamples.config.logging.enums.MethodLogLevel;
+import io.github.susimsek.springnextjssamples.config.logging.enums.OverflowPolicy;
 import io.github.susimsek.springnextjssamples.validation.DataSizeMax;
 import io.github.susimsek.springnextjssamples.validation.DataSizeMin;
 import io.github.susimsek.springnextjssamples.validation.Enum;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -15,6 +19,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.validator.constraints.URL;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
 import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
@@ -31,6 +36,10 @@ public class LoggingProperties {
         "%clr(${PID:- }){magenta} --- [%clr(${spring.application.name:-}){green},%X{traceId:-},%X{spanId:-}] [%clr(%t){faint}] %clr(%-40.40logger{39}){cyan} "
         + "%clr(:){faint} %m%n%clr(%wEx){red}";
 
+    @NotNull(message = "{validation.field.notNull}")
+    @Enum(enumClass = LogFormat.class, message = "{validation.field.enum}")
+    private LogFormat format = LogFormat.COMPACT;
+
     @Valid
     @NotNull(message = "{validation.field.notNull}")
     private Http http = new Http();
@@ -43,6 +52,10 @@ public class LoggingProperties {
     @NotNull(message = "{validation.field.notNull}")
     private Obfuscate obfuscate = new Obfuscate();
 
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Sampling sampling = new Sampling();
+
     @Valid
     @NotNull(message = "{validation.field.notNull}")
     private Async async = new Async();
@@ -59,6 +72,46 @@ public class LoggingProperties {
         @NotNull(message = "{validation.field.notNull}")
         @Enum(enumClass = HttpLogLevel.class, message = "{validation.field.enum}")
         private HttpLogLevel logLevel = HttpLogLevel.BASIC;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @DataSizeMax(value = "1MB", message = "{validation.field.max}")
+        private DataSize maxPayloadSize = DataSize.ofKilobytes(16);
+
+        private List<String> excludedContentTypes = List.of(
+            MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_PDF_VALUE,
+            "image/*", "audio/*", "video/*", "multipart/*");
+
+        @Valid
+        @NotNull(message = "{validation.field.notNull}")
+        private Pipeline pipeline = new Pipeline();
+
+        @Getter
+        @Setter
+        public static class Pipeline {
+            private boolean enabled = true;
+
+            @Min(value = 1, message = "{validation.field.min}")
+            private int bufferSize = 8192;
+
+            @Min(value = 1, message = "{validation.field.min}")
+            private int workers = 1;
+
+            @NotNull(message = "{validation.field.notNull}")
+            @Enum(enumClass = OverflowPolicy.class, message = "{validation.field.enum}")
+            private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+            @NotNull(message = "{validation.field.notNull}")
+            @DecimalMin(value = "0.0", message = "{validation.field.min}")
+            @DecimalMax(value = "1.0", message = "{validation.field.max}")
+            private Double sampleRate = 0.1;
+
+            @NotNull(message = "{validation.field.notNull}")
+            private Duration blockTimeout = Duration.ofMillis(50);
+
+            @NotNull(message = "{validation.field.notNull}")
+            private Duration drainTimeout = Duration.ofSeconds(5);
+        }
     }
 
     @Getter
@@ -71,6 +124,22 @@ public class LoggingProperties {
         private MethodLogLevel logLevel = MethodLogLevel.BASIC;
     }
 
+    @Getter
+    @Setter
+    public static class Sampling {
+        @NotNull(message = "{validation.field.notNull}")
+        @DecimalMin(value = "0.0", message = "{validation.field.min}")
+        @DecimalMax(value = "1.0", message = "{validation.field.max}")
+        private Double rate = 1.0;
+
+        private boolean followTrace = true;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        private boolean keepErrors = true;
+    }
+
     @Getter
     @Setter
     public static class Obfuscate {
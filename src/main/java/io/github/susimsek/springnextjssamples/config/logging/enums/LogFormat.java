@@ -0,0 +1,5 @@
+package io.github.susimsek.springnextjssamples.config.logging.enums;
+
+public enum LogFormat {
+    PRETTY, COMPACT
+}
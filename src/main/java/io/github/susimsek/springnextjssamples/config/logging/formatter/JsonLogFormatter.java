@@ -1,25 +1,42 @@
 package io.github.susimsek.springnextjssamples.config.logging.formatter;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.susimsek.springnextjssamples.config.logging.enums.LogFormat;
 import io.github.susimsek.springnextjssamples.config.logging.model.HttpLog;
 import io.github.susimsek.springnextjssamples.config.logging.model.MethodLog;
 import io.github.susimsek.springnextjssamples.config.tracing.Trace;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.StringUtils;
 
+/**
+ * Formats logs as JSON documents.
+ *
+ * <p>With {@link LogFormat#COMPACT}, logs are written field by field to a {@link JsonGenerator} of the mapper,
+ * without building a tree, as single-line JSON suitable for NDJSON shippers; bodies already known to be JSON are
+ * embedded as raw values. {@link LogFormat#PRETTY} builds a tree and pretty-prints it.</p>
+ */
 @RequiredArgsConstructor
 public class JsonLogFormatter implements LogFormatter {
 
     private final ObjectMapper objectMapper;
+    private final LogFormat format;
 
     @Override
     public String format(HttpLog httpLog) {
+        if (format == LogFormat.COMPACT) {
+            return write(generator -> writeHttpLog(generator, httpLog));
+        }
         ObjectNode logNode = objectMapper.createObjectNode();
         logNode.set("source", JsonNodeFactory.instance.textNode(httpLog.getSource().toString().toLowerCase()));
         logNode.set("type", JsonNodeFactory.instance.textNode(httpLog.getType().toString().toLowerCase()));
@@ -42,6 +59,13 @@ public class JsonLogFormatter implements LogFormatter {
             logNode.set("body", parseBody(httpLog.getBody()));
         }
 
+        Optional.ofNullable(httpLog.getBodySize())
+            .ifPresent(bodySize -> logNode.set("bodySize", JsonNodeFactory.instance.numberNode(bodySize)));
+
+        if (httpLog.isBodyTruncated()) {
+            logNode.set("bodyTruncated", JsonNodeFactory.instance.booleanNode(true));
+        }
+
         Optional.ofNullable(httpLog.getTrace())
             .ifPresent(trace -> logNode.set("tracing", parseTraceMetadata(trace)));
 
@@ -50,6 +74,9 @@ public class JsonLogFormatter implements LogFormatter {
 
     @Override
     public String format(MethodLog methodLog) {
+        if (format == LogFormat.COMPACT) {
+            return write(generator -> writeMethodLog(generator, methodLog));
+        }
         ObjectNode logNode = objectMapper.createObjectNode();
         logNode.set("type", JsonNodeFactory.instance.textNode(methodLog.getType().toString().toLowerCase()));
         logNode.set("className", JsonNodeFactory.instance.textNode(methodLog.getClassName()));
@@ -73,6 +100,101 @@ public class JsonLogFormatter implements LogFormatter {
         return logNode.toPrettyString();
     }
 
+    private String write(JsonWriter writer) {
+        StringWriter output = new StringWriter();
+        try {
+            try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+                writer.write(generator);
+            }
+            return output.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeHttpLog(JsonGenerator generator, HttpLog httpLog) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("source", httpLog.getSource().toString().toLowerCase());
+        generator.writeStringField("type", httpLog.getType().toString().toLowerCase());
+        generator.writeStringField("method", httpLog.getMethod().name());
+        generator.writeStringField("uri", httpLog.getUri().toString());
+        generator.writeStringField("host", httpLog.getUri().getHost());
+        generator.writeStringField("path", httpLog.getUri().getPath());
+        if (httpLog.getDurationMs() != null) {
+            generator.writeStringField("duration", httpLog.getDurationMs() + "ms");
+        }
+        if (httpLog.getStatusCode() != null) {
+            generator.writeNumberField("statusCode", httpLog.getStatusCode());
+        }
+        if (httpLog.getHeaders() != null) {
+            writeHeaders(generator, httpLog.getHeaders());
+        }
+        if (StringUtils.hasText(httpLog.getBody())) {
+            generator.writeFieldName("body");
+            if (httpLog.isJsonBody()) {
+                generator.writeRawValue(httpLog.getBody());
+            } else {
+                generator.writeStartObject();
+                generator.writeStringField("body", httpLog.getBody());
+                generator.writeEndObject();
+            }
+        }
+        if (httpLog.getBodySize() != null) {
+            generator.writeNumberField("bodySize", httpLog.getBodySize());
+        }
+        if (httpLog.isBodyTruncated()) {
+            generator.writeBooleanField("bodyTruncated", true);
+        }
+        if (httpLog.getTrace() != null) {
+            writeTrace(generator, httpLog.getTrace());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeMethodLog(JsonGenerator generator, MethodLog methodLog) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", methodLog.getType().toString().toLowerCase());
+        generator.writeStringField("className", methodLog.getClassName());
+        generator.writeStringField("methodName", methodLog.getMethodName());
+        if (methodLog.getArguments() != null) {
+            generator.writeFieldName("arguments");
+            objectMapper.writeValue(generator, methodLog.getArguments());
+        }
+        if (methodLog.getDurationMs() != null) {
+            generator.writeStringField("duration", methodLog.getDurationMs() + "ms");
+        }
+        if (methodLog.getResult() != null) {
+            generator.writeFieldName("result");
+            objectMapper.writeValue(generator, methodLog.getResult());
+        }
+        if (methodLog.getExceptionMessage() != null) {
+            generator.writeStringField("exceptionMessage", methodLog.getExceptionMessage());
+        }
+        if (methodLog.getTrace() != null) {
+            writeTrace(generator, methodLog.getTrace());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeHeaders(JsonGenerator generator, HttpHeaders headers) throws IOException {
+        generator.writeObjectFieldStart("headers");
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            generator.writeArrayFieldStart(header.getKey());
+            for (String value : header.getValue()) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeTrace(JsonGenerator generator, Trace trace) throws IOException {
+        generator.writeObjectFieldStart("tracing");
+        generator.writeStringField("traceId", trace.getTraceId());
+        generator.writeStringField("spanId", trace.getSpanId());
+        generator.writeEndObject();
+    }
+
     private JsonNode parseHeaders(HttpHeaders headers) {
         return objectMapper.valueToTree(headers);
     }
@@ -93,4 +215,9 @@ public class JsonLogFormatter implements LogFormatter {
         traceNode.set("spanId", JsonNodeFactory.instance.textNode(trace.getSpanId()));
         return traceNode;
     }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
 }
@@ -0,0 +1,161 @@
+package io.github.susimsek.springnextjssamples.config.logging.handler;
+
+import io.github.susimsek.springnextjssamples.config.logging.LoggingProperties;
+import io.github.susimsek.springnextjssamples.config.logging.enums.OverflowPolicy;
+import io.github.susimsek.springnextjssamples.config.logging.model.HttpLogRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands captured {@link HttpLogRecord}s over to dedicated worker threads, which mask, format and emit them off the
+ * request thread.
+ *
+ * <p>Records are queued in a bounded ring buffer. When it is full, the {@link OverflowPolicy} applies:
+ * <ul>
+ *     <li>{@link OverflowPolicy#DROP}: the record is dropped</li>
+ *     <li>{@link OverflowPolicy#SAMPLE}: once the buffer is half full, only {@code sample-rate} of the records are
+ *     queued; the record is dropped if the buffer is full</li>
+ *     <li>{@link OverflowPolicy#BLOCK}: the request thread waits up to {@code block-timeout} for free space, then
+ *     drops the record</li>
+ * </ul>
+ * The buffer depth is published as the {@code logging.http.pipeline.queue.size} gauge and dropped records are counted
+ * in {@code logging.http.pipeline.dropped}, tagged by reason. On {@link #stop()}, the workers drain the buffer for
+ * up to {@code drain-timeout}.</p>
+ */
+@Slf4j
+public class HttpLogPipeline {
+
+    private static final String METRIC_PREFIX = "logging.http.pipeline";
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final LoggingProperties.Http.Pipeline properties;
+    private final BlockingQueue<HttpLogRecord> buffer;
+    private final int sampleThreshold;
+    private final Counter overflowDrops;
+    private final Counter sampledDrops;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Creates a pipeline publishing its metrics to the given {@link MeterRegistry}.
+     *
+     * @param properties    the pipeline properties
+     * @param meterRegistry the meter registry
+     */
+    public HttpLogPipeline(LoggingProperties.Http.Pipeline properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        this.sampleThreshold = properties.getBufferSize() / 2;
+        Gauge.builder(METRIC_PREFIX + ".queue.size", buffer, BlockingQueue::size)
+            .description("HTTP log records waiting to be emitted")
+            .register(meterRegistry);
+        this.overflowDrops = dropCounter(meterRegistry, "overflow");
+        this.sampledDrops = dropCounter(meterRegistry, "sampled");
+    }
+
+    /**
+     * Starts the worker threads, each passing the records it takes from the buffer to the given consumer.
+     *
+     * @param consumer the consumer masking, formatting and emitting records
+     */
+    public synchronized void start(Consumer<HttpLogRecord> consumer) {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= properties.getWorkers(); i++) {
+            Thread worker = new Thread(() -> work(consumer), "http-log-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Stops the workers once the buffer has been drained or the drain timeout has elapsed.
+     */
+    public synchronized void stop() {
+        running = false;
+        long deadline = System.nanoTime() + properties.getDrainTimeout().toNanos();
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            try {
+                if (remainingMs > 0) {
+                    worker.join(remainingMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker.interrupt();
+        }
+        workers.clear();
+        if (!buffer.isEmpty()) {
+            log.warn("Discarded {} HTTP log records on shutdown", buffer.size());
+        }
+    }
+
+    /**
+     * Queues a record according to the overflow policy.
+     *
+     * @param record the captured record
+     * @return {@code true} if the record was queued
+     */
+    public boolean submit(HttpLogRecord record) {
+        OverflowPolicy policy = properties.getOverflowPolicy();
+        if (policy == OverflowPolicy.SAMPLE && buffer.size() >= sampleThreshold
+            && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            sampledDrops.increment();
+            return false;
+        }
+        boolean queued = policy == OverflowPolicy.BLOCK ? offer(record) : buffer.offer(record);
+        if (!queued) {
+            overflowDrops.increment();
+        }
+        return queued;
+    }
+
+    private boolean offer(HttpLogRecord record) {
+        try {
+            return buffer.offer(record, properties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void work(Consumer<HttpLogRecord> consumer) {
+        while (running || !buffer.isEmpty()) {
+            HttpLogRecord record;
+            try {
+                record = buffer.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (record == null) {
+                continue;
+            }
+            try {
+                consumer.accept(record);
+            } catch (RuntimeException e) {
+                log.warn("Failed to emit HTTP log record for {} {}", record.method(), record.uri(), e);
+            }
+        }
+    }
+
+    private static Counter dropCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(METRIC_PREFIX + ".dropped")
+            .description("HTTP log records dropped by the log pipeline")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.susimsek.springnextjssamples.config.logging.handler;
 
+import io.github.susimsek.springnextjssamples.config.logging.LoggingProperties;
 import io.github.susimsek.springnextjssamples.config.logging.enums.HttpLogLevel;
 import io.github.susimsek.springnextjssamples.config.logging.enums.HttpLogType;
 import io.github.susimsek.springnextjssamples.config.logging.enums.MethodLogLevel;
@@ -7,10 +8,11 @@ import io.github.susimsek.springnextjssamples.config.logging.enums.MethodLogType
 import io.github.susimsek.springnextjssamples.config.logging.enums.Source;
 import io.github.susimsek.springnextjssamples.config.logging.formatter.LogFormatter;
 import io.github.susimsek.springnextjssamples.config.logging.model.HttpLog;
+import io.github.susimsek.springnextjssamples.config.logging.model.HttpLogRecord;
 import io.github.susimsek.springnextjssamples.config.logging.model.MethodLog;
 import io.github.susimsek.springnextjssamples.config.logging.utils.Obfuscator;
-import io.github.susimsek.springnextjssamples.config.logging.wrapper.HttpRequestMatcher;
 import io.github.susimsek.springnextjssamples.config.tracing.Trace;
+import io.github.susimsek.springnextjssamples.utils.RequestMatcherIndex;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +24,7 @@ import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.slf4j.MDC;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
@@ -33,50 +36,72 @@ import org.springframework.util.Assert;
 @Slf4j
 @RequiredArgsConstructor
 public class HttpLoggingHandler implements LoggingHandler {
+    private static final String TRACE_ID_KEY = "traceId";
+    private static final String SPAN_ID_KEY = "spanId";
+    private static final String REQUEST_MATCHER_CONFIG_ATTRIBUTE =
+        HttpLoggingHandler.class.getName() + ".REQUEST_MATCHER_CONFIG";
+
     private final Tracer tracer;
     private final HttpLogLevel httpLogLevel;
     private final MethodLogLevel methodLogLevel;
     private final LogFormatter logFormatter;
     private final Obfuscator obfuscator;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultLogged;
+    private final RequestMatcherIndex<RequestMatcherConfig> requestMatcherIndex;
+    private final RequestMatcherConfig defaultConfig;
+    private final HttpLogPipeline pipeline;
+    private final LogSampler sampler;
 
     @Override
-    public void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body,
+    public void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body, long bodySize,
                            Source source) {
         if (httpLogLevel == HttpLogLevel.NONE) {
             return;
         }
-        HttpLog.HttpLogBuilder logBuilder = initLogBuilder(
-            HttpLogType.REQUEST, method, uri, headers, source);
-        if (isHttpLogLevel(HttpLogLevel.FULL)) {
-            logBuilder.body(obfuscator.maskBody(new String(body, StandardCharsets.UTF_8)));
-        }
-
-        log("HTTP Request: {}", logFormatter.format(logBuilder.build()));
+        dispatch(new HttpLogRecord(HttpLogType.REQUEST, method, uri, null, snapshot(headers),
+            isHttpLogLevel(HttpLogLevel.FULL) ? body : null, bodySize, source, createTrace(headers), null));
     }
 
     @Override
     public void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers,
-                            byte[] responseBody, Source source, long duration) {
+                            byte[] responseBody, long responseBodySize, Source source, long duration) {
         if (httpLogLevel == HttpLogLevel.NONE) {
             return;
         }
-        HttpLog.HttpLogBuilder logBuilder = initLogBuilder(
-            HttpLogType.RESPONSE, method, uri, headers, source).statusCode(statusCode)
-            .durationMs(duration);
-
-        HttpStatus status = HttpStatus.valueOf(statusCode);
+        dispatch(new HttpLogRecord(HttpLogType.RESPONSE, method, uri, statusCode, snapshot(headers),
+            shouldLogBody(HttpStatus.resolve(statusCode)) ? responseBody : null, responseBodySize, source,
+            createTrace(null), duration));
+    }
 
-        if (isHttpLogLevel(HttpLogLevel.FULL) && status.is2xxSuccessful()) {
-            logBuilder.body(obfuscator.maskBody(new String(responseBody, StandardCharsets.UTF_8)));
-        } else if (shouldLogWithoutBody(status)) {
-            logBuilder.body(null);
-        } else if (status.is4xxClientError() || status.is5xxServerError()) {
-            logBuilder.body(obfuscator.maskBody(new String(responseBody, StandardCharsets.UTF_8)));
+    /**
+     * Masks, formats and logs a captured HTTP exchange, on the thread of the log pipeline if there is one.
+     *
+     * @param record the captured record
+     */
+    public void emit(HttpLogRecord record) {
+        HttpLog.HttpLogBuilder logBuilder = initLogBuilder(record);
+        if (record.bodySize() > 0) {
+            logBuilder.bodySize(record.bodySize());
+        }
+        if (record.body() != null && record.body().length > 0
+            && (record.bodySize() < 0 || record.body().length < record.bodySize())) {
+            String bodyPrefix = new String(record.body(), StandardCharsets.UTF_8);
+            logBuilder.body(obfuscator.maskBodyPrefix(bodyPrefix)).bodyTruncated(true);
+        } else if (record.body() != null) {
+            String body = new String(record.body(), StandardCharsets.UTF_8);
+            String jsonBody = obfuscator.maskJsonBody(body);
+            logBuilder.body(jsonBody != null ? jsonBody : obfuscator.maskBody(body))
+                .jsonBody(jsonBody != null);
+        }
+        String message = record.type() == HttpLogType.REQUEST ? "HTTP Request: {}" : "HTTP Response: {}";
+        Trace trace = record.trace();
+        if (pipeline == null || trace == null || trace.getTraceId() == null) {
+            log(message, logFormatter.format(logBuilder.build()));
+            return;
+        }
+        try (MDC.MDCCloseable traceId = MDC.putCloseable(TRACE_ID_KEY, trace.getTraceId());
+             MDC.MDCCloseable spanId = MDC.putCloseable(SPAN_ID_KEY, trace.getSpanId())) {
+            log(message, logFormatter.format(logBuilder.build()));
         }
-
-        log("HTTP Response: {}", logFormatter.format(logBuilder.build()));
     }
 
     @Override
@@ -121,21 +146,12 @@ public class HttpLoggingHandler implements LoggingHandler {
 
     @Override
     public boolean shouldNotLog(HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.logged)
-            .findFirst()
-            .orElse(!defaultLogged);
+        return !requestMatcherConfig(request).logged;
     }
 
     @Override
     public boolean shouldNotLog(HttpRequest request) {
-        return httpLogLevel == HttpLogLevel.NONE
-            || requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.logged)
-            .findFirst()
-            .orElse(!defaultLogged);
+        return httpLogLevel == HttpLogLevel.NONE || !requestMatcherConfig(request).logged;
     }
 
     @Override
@@ -143,15 +159,82 @@ public class HttpLoggingHandler implements LoggingHandler {
         return methodLogLevel == MethodLogLevel.NONE;
     }
 
-    private HttpLog.HttpLogBuilder initLogBuilder(HttpLogType type, HttpMethod method, URI uri,
-                                                  HttpHeaders headers, Source source) {
+    @Override
+    public boolean isSampled(HttpServletRequest request) {
+        return isSampled(requestMatcherConfig(request));
+    }
+
+    @Override
+    public boolean isSampled(HttpRequest request) {
+        return isSampled(requestMatcherConfig(request));
+    }
+
+    @Override
+    public boolean isSampled(ProceedingJoinPoint joinPoint) {
+        return sampler.isSampled();
+    }
+
+    @Override
+    public boolean shouldKeep(Integer statusCode, long duration, boolean failed) {
+        return sampler.shouldKeep(statusCode, duration, failed);
+    }
+
+    private boolean isSampled(RequestMatcherConfig config) {
+        return config.sampleRate != null ? sampler.isSampled(config.sampleRate) : sampler.isSampled();
+    }
+
+    /**
+     * Looks up the logging decisions of a servlet request once and keeps them as a request attribute, since the
+     * filter and the sampler both need them.
+     */
+    private RequestMatcherConfig requestMatcherConfig(HttpServletRequest request) {
+        Object cached = request.getAttribute(REQUEST_MATCHER_CONFIG_ATTRIBUTE);
+        if (cached instanceof RequestMatcherConfig config) {
+            return config;
+        }
+        RequestMatcherConfig config = requestMatcherIndex.match(request);
+        if (config == null) {
+            config = defaultConfig;
+        }
+        request.setAttribute(REQUEST_MATCHER_CONFIG_ATTRIBUTE, config);
+        return config;
+    }
+
+    private RequestMatcherConfig requestMatcherConfig(HttpRequest request) {
+        RequestMatcherConfig config = requestMatcherIndex.match(request.getMethod(), request.getURI().getPath());
+        return config != null ? config : defaultConfig;
+    }
+
+    private void dispatch(HttpLogRecord record) {
+        if (pipeline != null) {
+            pipeline.submit(record);
+        } else {
+            emit(record);
+        }
+    }
+
+    private HttpHeaders snapshot(HttpHeaders headers) {
+        if (!isHttpLogLevel(HttpLogLevel.HEADERS) || headers == null) {
+            return null;
+        }
+        if (pipeline == null) {
+            return headers;
+        }
+        HttpHeaders snapshot = new HttpHeaders();
+        headers.forEach((name, values) -> snapshot.put(name, new ArrayList<>(values)));
+        return snapshot;
+    }
+
+    private HttpLog.HttpLogBuilder initLogBuilder(HttpLogRecord record) {
         return HttpLog.builder()
-            .type(type)
-            .method(method)
-            .uri(uri)
-            .headers(isHttpLogLevel(HttpLogLevel.HEADERS) ? obfuscator.maskHeaders(headers) : new HttpHeaders())
-            .source(source)
-            .trace(type == HttpLogType.REQUEST ? createTrace(headers) : null);
+            .type(record.type())
+            .method(record.method())
+            .uri(record.uri())
+            .statusCode(record.statusCode())
+            .durationMs(record.durationMs())
+            .headers(record.headers() != null ? obfuscator.maskHeaders(record.headers()) : new HttpHeaders())
+            .source(record.source())
+            .trace(record.type() == HttpLogType.REQUEST ? record.trace() : null);
     }
 
     private MethodLog.MethodLogBuilder initMethodLogBuilder(MethodLogType type,
@@ -173,6 +256,16 @@ public class HttpLoggingHandler implements LoggingHandler {
         return methodLogLevel.ordinal() >= level.ordinal();
     }
 
+    private boolean shouldLogBody(HttpStatus status) {
+        if (status == null) {
+            return false;
+        }
+        if (isHttpLogLevel(HttpLogLevel.FULL) && status.is2xxSuccessful()) {
+            return true;
+        }
+        return !shouldLogWithoutBody(status) && (status.is4xxClientError() || status.is5xxServerError());
+    }
+
     private boolean shouldLogWithoutBody(HttpStatus status) {
         return status == HttpStatus.UNAUTHORIZED || status == HttpStatus.FORBIDDEN
             || status == HttpStatus.TOO_MANY_REQUESTS;
@@ -199,8 +292,10 @@ public class HttpLoggingHandler implements LoggingHandler {
 
     @AllArgsConstructor
     private static class RequestMatcherConfig {
-        private final HttpRequestMatcher requestMatcher;
+        private final HttpMethod method;
+        private final String pattern;
         private boolean logged;
+        private Double sampleRate;
     }
 
     public interface InitialBuilder {
@@ -214,6 +309,10 @@ public class HttpLoggingHandler implements LoggingHandler {
 
         AfterRequestMatchersBuilder requestMatchers(String... patterns);
 
+        InitialBuilder pipeline(HttpLogPipeline pipeline);
+
+        InitialBuilder sampler(LogSampler sampler);
+
         HttpLoggingHandler build();
     }
 
@@ -221,6 +320,8 @@ public class HttpLoggingHandler implements LoggingHandler {
         InitialBuilder permitAll();
 
         InitialBuilder logged();
+
+        InitialBuilder sampled(double rate);
     }
 
     public static InitialBuilder builder(Tracer tracer, LogFormatter logFormatter,
@@ -239,6 +340,9 @@ public class HttpLoggingHandler implements LoggingHandler {
         private boolean defaultLogged = true;
         private HttpLogLevel httpLogLevel = HttpLogLevel.FULL;
         private MethodLogLevel methodLogLevel = MethodLogLevel.FULL;
+        private HttpLogPipeline pipeline;
+        private LogSampler sampler;
+        private Double defaultSampleRate;
         private int lastIndex = 0;
 
         private Builder(Tracer tracer, LogFormatter logFormatter,
@@ -252,8 +356,7 @@ public class HttpLoggingHandler implements LoggingHandler {
         public Builder requestMatchers(HttpMethod method, String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new HttpRequestMatcher.Builder()
-                    .pattern(method, pattern).build(), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(method, pattern, true, null));
             }
             return this;
         }
@@ -262,8 +365,7 @@ public class HttpLoggingHandler implements LoggingHandler {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new HttpRequestMatcher.Builder()
-                    .pattern(pattern).build(), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(null, pattern, true, null));
             }
             return this;
         }
@@ -301,6 +403,23 @@ public class HttpLoggingHandler implements LoggingHandler {
             return this;
         }
 
+        public Builder sampled(double rate) {
+            Assert.state(anyRequestConfigured || !requestMatcherConfigs.isEmpty(),
+                "sampled() can only be called after requestMatchers() or anyRequest()");
+            if (anyRequestConfigured) {
+                this.defaultLogged = true;
+                this.defaultSampleRate = rate;
+            } else {
+                requestMatcherConfigs.stream()
+                    .skip(lastIndex)
+                    .forEach(config -> {
+                        config.logged = true;
+                        config.sampleRate = rate;
+                    });
+            }
+            return this;
+        }
+
         public Builder httpLogLevel(HttpLogLevel logLevel) {
             this.httpLogLevel = logLevel;
             return this;
@@ -311,10 +430,31 @@ public class HttpLoggingHandler implements LoggingHandler {
             return this;
         }
 
+        public Builder pipeline(HttpLogPipeline pipeline) {
+            this.pipeline = pipeline;
+            return this;
+        }
+
+        public Builder sampler(LogSampler sampler) {
+            this.sampler = sampler;
+            return this;
+        }
+
         public HttpLoggingHandler build() {
-            return new HttpLoggingHandler(
-                tracer, httpLogLevel, methodLogLevel, logFormatter, obfuscator,
-                requestMatcherConfigs, defaultLogged);
+            LogSampler logSampler = sampler != null
+                ? sampler
+                : new LogSampler(tracer, new LoggingProperties.Sampling());
+            RequestMatcherIndex.Builder<RequestMatcherConfig> indexBuilder = RequestMatcherIndex.builder();
+            for (RequestMatcherConfig config : requestMatcherConfigs) {
+                indexBuilder.add(config.method, config.pattern, config);
+            }
+            HttpLoggingHandler handler = new HttpLoggingHandler(
+                tracer, httpLogLevel, methodLogLevel, logFormatter, obfuscator, indexBuilder.build(),
+                new RequestMatcherConfig(null, null, defaultLogged, defaultSampleRate), pipeline, logSampler);
+            if (pipeline != null) {
+                pipeline.start(handler::emit);
+            }
+            return handler;
         }
 
         @Override
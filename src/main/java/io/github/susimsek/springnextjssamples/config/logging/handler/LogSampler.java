@@ -0,0 +1,64 @@
+package io.github.susimsek.springnextjssamples.config.logging.handler;
+
+import io.github.susimsek.springnextjssamples.config.logging.LoggingProperties;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sampling decisions for HTTP and method logs.
+ *
+ * <p>The head decision is taken before an exchange or a method call. When {@code follow-trace} is set and the trace
+ * of the current span is not sampled, it is dropped; otherwise, with a sampled trace or without a current span, it is
+ * kept with the given probability. Logs are thus a subset of the sampled traces, thinned by the rate. Sampled-out
+ * exchanges are not captured.
+ * The tail decision is taken once the outcome is known: sampled-out exchanges and calls are still logged, without
+ * bodies, when they failed, ended with a 4xx/5xx status or took longer than {@code slow-threshold}.</p>
+ */
+@RequiredArgsConstructor
+public class LogSampler {
+
+    private final Tracer tracer;
+    private final LoggingProperties.Sampling properties;
+
+    /**
+     * Takes the head decision with the default rate.
+     *
+     * @return {@code true} if the exchange or call is logged in full
+     */
+    public boolean isSampled() {
+        return isSampled(properties.getRate());
+    }
+
+    /**
+     * Takes the head decision with the given rate.
+     *
+     * @param rate the probability of keeping the exchange or call, between {@code 0} and {@code 1}
+     * @return {@code true} if the exchange or call is logged in full
+     */
+    public boolean isSampled(double rate) {
+        if (properties.isFollowTrace()) {
+            Span currentSpan = tracer.currentSpan();
+            if (currentSpan != null && Boolean.FALSE.equals(currentSpan.context().sampled())) {
+                return false;
+            }
+        }
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Takes the tail decision for a sampled-out exchange or call.
+     *
+     * @param statusCode the response status code, {@code null} for method calls
+     * @param durationMs the duration in milliseconds
+     * @param failed     whether it ended with an error
+     * @return {@code true} if it is logged anyway
+     */
+    public boolean shouldKeep(Integer statusCode, long durationMs, boolean failed) {
+        if (failed || durationMs >= properties.getSlowThreshold().toMillis()) {
+            return true;
+        }
+        return properties.isKeepErrors() && statusCode != null && (statusCode == 0 || statusCode >= 400);
+    }
+}
@@ -10,11 +10,22 @@ import org.springframework.http.HttpRequest;
 
 public interface LoggingHandler {
 
-    void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body,
+    default void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body,
+                            Source source) {
+        logRequest(method, uri, headers, body, body != null ? body.length : 0, source);
+    }
+
+    void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body, long bodySize,
                     Source source);
 
+    default void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers,
+                             byte[] responseBody, Source source, long duration) {
+        logResponse(method, uri, statusCode, headers, responseBody,
+            responseBody != null ? responseBody.length : 0, source, duration);
+    }
+
     void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers, byte[] responseBody,
-                     Source source, long duration);
+                     long responseBodySize, Source source, long duration);
 
     void logMethodEntry(String className, String methodName, Object[] args);
 
@@ -28,4 +39,38 @@ public interface LoggingHandler {
     boolean shouldNotLog(HttpRequest request);
 
     boolean shouldNotMethodLog(ProceedingJoinPoint joinPoint);
+
+    /**
+     * Takes the head sampling decision for an incoming request.
+     *
+     * @param request the request
+     * @return {@code true} if the exchange is captured and logged in full
+     */
+    boolean isSampled(HttpServletRequest request);
+
+    /**
+     * Takes the head sampling decision for an outgoing request.
+     *
+     * @param request the request
+     * @return {@code true} if the exchange is captured and logged in full
+     */
+    boolean isSampled(HttpRequest request);
+
+    /**
+     * Takes the head sampling decision for a method call.
+     *
+     * @param joinPoint the method call
+     * @return {@code true} if the call is logged in full
+     */
+    boolean isSampled(ProceedingJoinPoint joinPoint);
+
+    /**
+     * Takes the tail sampling decision for a sampled-out exchange or method call.
+     *
+     * @param statusCode the response status code, {@code null} for method calls
+     * @param duration   the duration in milliseconds
+     * @param failed     whether it ended with an error
+     * @return {@code true} if it is logged anyway, without bodies
+     */
+    boolean shouldKeep(Integer statusCode, long duration, boolean failed);
 }
@@ -24,6 +24,9 @@ public class HttpLog {
     private Integer statusCode;
     private HttpHeaders headers;
     private String body;
+    private boolean jsonBody;
+    private Long bodySize;
+    private boolean bodyTruncated;
     private Source source;
     private Trace trace;
     private Long durationMs;
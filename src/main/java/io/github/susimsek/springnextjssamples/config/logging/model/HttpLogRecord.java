@@ -0,0 +1,30 @@
+package io.github.susimsek.springnextjssamples.config.logging.model;
+
+import io.github.susimsek.springnextjssamples.config.logging.enums.HttpLogType;
+import io.github.susimsek.springnextjssamples.config.logging.enums.Source;
+import io.github.susimsek.springnextjssamples.config.tracing.Trace;
+import java.net.URI;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Raw data of an HTTP exchange captured on the request thread, before masking and formatting.
+ *
+ * <p>The headers are a snapshot and the body is owned by the record, so that it can be processed on another
+ * thread once the exchange has completed.</p>
+ *
+ * @param type       the log type
+ * @param method     the HTTP method
+ * @param uri        the request URI
+ * @param statusCode the response status code, {@code null} for requests
+ * @param headers    the header snapshot
+ * @param body       the raw body, possibly truncated, may be {@code null}
+ * @param bodySize   the size of the whole body in bytes, or a negative value if unknown, in which case the body
+ *                   is treated as truncated
+ * @param source     the side of the exchange
+ * @param trace      the trace of the request thread
+ * @param durationMs the duration of the exchange in milliseconds, {@code null} for requests
+ */
+public record HttpLogRecord(HttpLogType type, HttpMethod method, URI uri, Integer statusCode,
+                            HttpHeaders headers, byte[] body, long bodySize, Source source, Trace trace, Long durationMs) {
+}
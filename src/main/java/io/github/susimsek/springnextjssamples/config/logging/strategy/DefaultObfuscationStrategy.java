@@ -1,34 +1,58 @@
 package io.github.susimsek.springnextjssamples.config.logging.strategy;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import io.github.susimsek.springnextjssamples.config.logging.LoggingProperties;
+import io.github.susimsek.springnextjssamples.config.logging.utils.JsonMasker;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-@RequiredArgsConstructor
+/**
+ * Default {@link ObfuscationStrategy}, masking the configured headers, parameters and JSON fields.
+ *
+ * <p>The JSON paths of {@code json-body-fields} and {@code method-fields} are compiled once into
+ * {@link JsonMasker}s; bodies and method values are masked while streaming their tokens, without building a tree.
+ * Header and parameter names are case-folded once into hash sets. Headers and URIs without anything to mask are
+ * returned as is.</p>
+ */
 public class DefaultObfuscationStrategy implements ObfuscationStrategy {
 
-    private final LoggingProperties loggingProperties;
     private final ObjectMapper objectMapper;
+    private final Set<String> maskedHeaders;
+    private final Set<String> maskedParameters;
+    private final List<String> maskValues;
+    private final JsonMasker bodyMasker;
+    private final JsonMasker methodMasker;
+
+    public DefaultObfuscationStrategy(LoggingProperties loggingProperties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        LoggingProperties.Obfuscate obfuscate = loggingProperties.getObfuscate();
+        this.maskedHeaders = caseFolded(obfuscate.getHeaders());
+        this.maskedParameters = caseFolded(obfuscate.getParameters());
+        this.maskValues = List.of(obfuscate.getMaskValue());
+        this.bodyMasker = JsonMasker.compile(
+            objectMapper.getFactory(), obfuscate.getJsonBodyFields(), obfuscate.getMaskValue());
+        this.methodMasker = JsonMasker.compile(
+            objectMapper.getFactory(), obfuscate.getMethodFields(), obfuscate.getMaskValue());
+    }
 
     @Override
     public HttpHeaders maskHeaders(HttpHeaders headers) {
+        if (!containsAny(maskedHeaders, headers.keySet())) {
+            return headers;
+        }
         HttpHeaders maskedHeaders = new HttpHeaders();
         headers.forEach((key, value) -> maskedHeaders.addAll(key,
-            shouldMask(loggingProperties.getObfuscate().getHeaders(), key)
-                ? List.of(loggingProperties.getObfuscate().getMaskValue())
-                : value));
+            shouldMask(this.maskedHeaders, key) ? maskValues : value));
         return maskedHeaders;
     }
 
@@ -37,25 +61,37 @@ public class DefaultObfuscationStrategy implements ObfuscationStrategy {
         if (!StringUtils.hasText(body)) {
             return body;
         }
-        try {
-            JsonNode rootNode = objectMapper.readTree(body);
-            maskJsonPaths(rootNode, loggingProperties.getObfuscate().getJsonBodyFields());
-            return objectMapper.writeValueAsString(rootNode);
-        } catch (Exception e) {
-            return body;
+        return bodyMasker.mask(body);
+    }
+
+    @Override
+    public String maskJsonBody(String body) {
+        if (!StringUtils.hasText(body)) {
+            return null;
         }
+        return bodyMasker.maskOrNull(body);
+    }
+
+    @Override
+    public String maskBodyPrefix(String bodyPrefix) {
+        if (!StringUtils.hasText(bodyPrefix)) {
+            return bodyPrefix;
+        }
+        String masked = bodyMasker.maskPrefix(bodyPrefix);
+        return masked != null ? masked : bodyPrefix;
     }
 
     @Override
     public URI maskUriParameters(URI uri) {
+        if (!containsAnyParameter(uri.getRawQuery())) {
+            return uri;
+        }
         UriComponentsBuilder builder = UriComponentsBuilder.fromUri(uri);
         MultiValueMap<String, String> queryParams = builder.build().getQueryParams();
         MultiValueMap<String, String> maskedParams = new LinkedMultiValueMap<>();
 
         queryParams.forEach((key, value) -> maskedParams.addAll(key,
-            shouldMask(loggingProperties.getObfuscate().getParameters(), key)
-                ? List.of(loggingProperties.getObfuscate().getMaskValue())
-                : value));
+            shouldMask(maskedParameters, key) ? maskValues : value));
 
         builder.replaceQueryParams(maskedParams);
         return builder.build().toUri();
@@ -78,132 +114,63 @@ public class DefaultObfuscationStrategy implements ObfuscationStrategy {
         return maskObject(result);
     }
 
-    private void maskJsonPaths(JsonNode rootNode, List<String> jsonPaths) {
-        for (String jsonPath : jsonPaths) {
-            String[] pathParts = splitJsonPath(jsonPath.replace("$.", ""));
-            maskJsonNodeRecursive(rootNode, pathParts, 0);
+    private boolean containsAnyParameter(String rawQuery) {
+        if (maskedParameters.isEmpty() || !StringUtils.hasLength(rawQuery)) {
+            return false;
         }
-    }
-
-    private String[] splitJsonPath(String jsonPath) {
-        List<String> pathParts = new ArrayList<>();
-        StringBuilder currentPart = new StringBuilder();
-        boolean escaped = false;
-
-        for (char c : jsonPath.toCharArray()) {
-            if (c == '\\' && !escaped) {
-                escaped = true;
-            } else if (c == '.' && !escaped) {
-                pathParts.add(currentPart.toString());
-                currentPart.setLength(0);
-            } else {
-                escaped = false;
-                currentPart.append(c);
+        int start = 0;
+        while (start <= rawQuery.length()) {
+            int end = rawQuery.indexOf('&', start);
+            if (end < 0) {
+                end = rawQuery.length();
             }
-        }
-
-        pathParts.add(currentPart.toString());
-        return pathParts.toArray(new String[0]);
-    }
-
-    private String unescapePart(String part) {
-        return part.replace("\\.", ".");
-    }
-
-    private void maskJsonNodeRecursive(JsonNode currentNode, String[] pathParts, int index) {
-        if (currentNode == null || index >= pathParts.length) {
-            return;
-        }
-
-        String currentPart = unescapePart(pathParts[index]);
-
-        if (isArraySegment(currentPart)) {
-            processArraySegment(currentNode, pathParts, index, currentPart);
-        } else if (currentPart.equals("*")) {
-            if (index + 1 == pathParts.length) {
-                maskAllFields(currentNode);
-            } else {
-                processWildcardSegment(currentNode, pathParts, index);
+            int equals = rawQuery.indexOf('=', start);
+            int nameEnd = equals >= 0 && equals < end ? equals : end;
+            if (shouldMask(maskedParameters, rawQuery.substring(start, nameEnd))) {
+                return true;
             }
-        } else if (currentNode.has(currentPart)) {
-            processObjectSegment(currentNode, pathParts, index, currentPart);
+            start = end + 1;
         }
+        return false;
     }
 
-    private boolean isArraySegment(String currentPart) {
-        return currentPart.contains("[*]");
-    }
-
-    private void processArraySegment(JsonNode currentNode, String[] pathParts, int index, String currentPart) {
-        String arrayPart = currentPart.split("\\[\\*]")[0];
-        if (currentNode.has(arrayPart) && currentNode.get(arrayPart).isArray()) {
-            for (JsonNode arrayItem : currentNode.get(arrayPart)) {
-                if (index + 1 == pathParts.length) {
-                    maskAllFields(arrayItem);
-                } else {
-                    maskJsonNodeRecursive(arrayItem, pathParts, index + 1);
-                }
-            }
+    private static boolean containsAny(Set<String> names, Iterable<String> keys) {
+        if (names.isEmpty()) {
+            return false;
         }
-    }
-
-    private void processWildcardSegment(JsonNode currentNode, String[] pathParts, int index) {
-        currentNode.fieldNames().forEachRemaining(fieldName ->
-            maskJsonNodeRecursive(currentNode.get(fieldName), pathParts, index + 1)
-        );
-    }
-
-    private void processObjectSegment(JsonNode currentNode, String[] pathParts, int index, String currentPart) {
-        JsonNode nextNode = currentNode.get(currentPart);
-        if (index + 1 == pathParts.length) {
-            maskField((ObjectNode) currentNode, currentPart);
-        } else {
-            maskJsonNodeRecursive(nextNode, pathParts, index + 1);
+        for (String key : keys) {
+            if (shouldMask(names, key)) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void maskField(ObjectNode currentNode, String fieldName) {
-        currentNode.set(
-            fieldName,
-            JsonNodeFactory.instance.textNode(
-                loggingProperties.getObfuscate().getMaskValue()
-            )
-        );
+    private static boolean shouldMask(Set<String> names, String key) {
+        return names.contains(key.toLowerCase(Locale.ROOT));
     }
 
-    private void maskAllFields(JsonNode node) {
-        if (node.isObject()) {
-            ObjectNode objectNode = (ObjectNode) node;
-            objectNode.fieldNames().forEachRemaining(fieldName ->
-                maskField(objectNode, fieldName)
-            );
-        } else if (node.isArray()) {
-            ArrayNode arrayNode = (ArrayNode) node;
-            for (int i = 0; i < arrayNode.size(); i++) {
-                JsonNode arrayItem = arrayNode.get(i);
-                if (arrayItem.isObject()) {
-                    maskAllFields(arrayItem);
-                } else {
-                    arrayNode.set(i, JsonNodeFactory.instance.textNode(
-                        loggingProperties.getObfuscate().getMaskValue()
-                    ));
-                }
-            }
+    private static Set<String> caseFolded(List<String> names) {
+        if (names == null) {
+            return Set.of();
         }
-    }
-
-    private boolean shouldMask(List<String> list, String key) {
-        return list.stream().anyMatch(item -> item.equalsIgnoreCase(key));
+        return names.stream()
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
     }
 
     private Object maskObject(Object object) {
         if (object == null) {
             return null;
         }
-        try {
-            JsonNode rootNode = objectMapper.valueToTree(object);
-            maskJsonPaths(rootNode, loggingProperties.getObfuscate().getMethodFields());
-            return objectMapper.treeToValue(rootNode, Object.class);
+        try (TokenBuffer source = new TokenBuffer(objectMapper, false);
+             TokenBuffer masked = new TokenBuffer(objectMapper, false)) {
+            objectMapper.writeValue(source, object);
+            try (JsonParser parser = source.asParser()) {
+                parser.nextToken();
+                methodMasker.mask(parser, masked);
+            }
+            return objectMapper.readValue(masked.asParser(), Object.class);
         } catch (Exception e) {
             return object;
         }
@@ -1,10 +1,19 @@
 package io.github.susimsek.springnextjssamples.config.logging.strategy;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.susimsek.springnextjssamples.config.logging.utils.JsonMasker;
 import java.net.URI;
 import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
 
 public class NoOpObfuscationStrategy implements ObfuscationStrategy {
 
+    private final JsonMasker jsonCompactor;
+
+    public NoOpObfuscationStrategy(ObjectMapper objectMapper) {
+        this.jsonCompactor = JsonMasker.compile(objectMapper.getFactory(), null, "");
+    }
+
     @Override
     public HttpHeaders maskHeaders(HttpHeaders headers) {
         return headers;
@@ -15,6 +24,19 @@ public class NoOpObfuscationStrategy implements ObfuscationStrategy {
         return body;
     }
 
+    @Override
+    public String maskJsonBody(String body) {
+        if (!StringUtils.hasText(body)) {
+            return null;
+        }
+        return jsonCompactor.maskOrNull(body);
+    }
+
+    @Override
+    public String maskBodyPrefix(String bodyPrefix) {
+        return bodyPrefix;
+    }
+
     @Override
     public URI maskUriParameters(URI uri) {
         return uri;
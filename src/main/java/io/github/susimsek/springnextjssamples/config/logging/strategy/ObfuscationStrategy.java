@@ -8,6 +8,22 @@ public interface ObfuscationStrategy {
 
     String maskBody(String body);
 
+    /**
+     * Masks a JSON body.
+     *
+     * @param body the body
+     * @return the masked body as compact JSON, or {@code null} if the body is not known to be JSON
+     */
+    String maskJsonBody(String body);
+
+    /**
+     * Masks the first bytes of a truncated body. JSON fields are masked up to the truncation point.
+     *
+     * @param bodyPrefix the beginning of the body
+     * @return the masked beginning of the body, as text
+     */
+    String maskBodyPrefix(String bodyPrefix);
+
     URI maskUriParameters(URI uri);
 
     Object[] maskArguments(Object[] arguments);
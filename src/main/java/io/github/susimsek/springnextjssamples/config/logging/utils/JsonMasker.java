@@ -0,0 +1,365 @@
+package io.github.susimsek.springnextjssamples.config.logging.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Masks the values of JSON documents selected by simple JSONPath expressions, in a single streaming pass over
+ * the parser tokens.
+ *
+ * <p>Supported path segments, separated by dots ({@code \.} escapes a dot in a field name), after an optional
+ * {@code $.} prefix:
+ * <ul>
+ *     <li>{@code name}: the field {@code name}; as last segment, its value is masked</li>
+ *     <li>{@code *}: every field; as last segment, every field value is masked, or for an array every element
+ *     (fields of object elements)</li>
+ *     <li>{@code name[*]}: every element of the array {@code name}; as last segment, the fields of every
+ *     element are masked</li>
+ * </ul>
+ * </p>
+ *
+ * <p>The paths are compiled once into a deterministic automaton whose states know, for each field name and for
+ * array elements, which state applies to the nested value. Masking is then a token copy from a {@link JsonParser}
+ * to a {@link JsonGenerator}; subtrees no path can reach are copied without lookups.</p>
+ */
+public final class JsonMasker {
+
+    private final JsonFactory jsonFactory;
+    private final String maskValue;
+    private final State root;
+
+    private JsonMasker(JsonFactory jsonFactory, String maskValue, State root) {
+        this.jsonFactory = jsonFactory;
+        this.maskValue = maskValue;
+        this.root = root;
+    }
+
+    /**
+     * Compiles the given paths into a masker.
+     *
+     * @param jsonFactory the factory of the parsers and generators
+     * @param paths       the paths of the values to mask, may be {@code null}
+     * @param maskValue   the replacement of masked values
+     * @return the masker
+     */
+    public static JsonMasker compile(JsonFactory jsonFactory, List<String> paths, String maskValue) {
+        PathNode rootNode = new PathNode();
+        if (paths != null) {
+            for (String path : paths) {
+                rootNode.add(splitPath(path), 0);
+            }
+        }
+        Set<PathNode> at = CollectionUtils.isEmpty(paths) ? Set.of() : Set.of(rootNode);
+        State root = new Compiler().state(false, false, false, false, at, Set.of());
+        return new JsonMasker(jsonFactory, maskValue, root);
+    }
+
+    /**
+     * Indicates whether no path has been configured, in which case documents are copied unchanged.
+     *
+     * @return {@code true} if this masker masks nothing
+     */
+    public boolean isEmpty() {
+        return root == State.EMPTY;
+    }
+
+    /**
+     * Masks the given JSON document. Only the first JSON value of the document is kept.
+     *
+     * @param json the JSON document
+     * @return the masked document, or the given document if it is not valid JSON
+     */
+    public String mask(String json) {
+        if (!StringUtils.hasText(json)) {
+            return json;
+        }
+        String masked = maskOrNull(json);
+        return masked != null ? masked : json;
+    }
+
+    /**
+     * Masks the given JSON document. Only the first JSON value of the document is kept.
+     *
+     * @param json the JSON document
+     * @return the masked document as compact JSON, or {@code null} if it is not valid JSON
+     */
+    @Nullable
+    public String maskOrNull(String json) {
+        StringWriter writer = new StringWriter(json.length());
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            copy(parser, generator, root);
+        } catch (IOException e) {
+            return null;
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Masks the beginning of a truncated JSON document, up to the truncation point.
+     *
+     * @param jsonPrefix the beginning of the JSON document
+     * @return the masked beginning of the document, which is not valid JSON if it was truncated, or {@code null} if
+     *     it does not start as valid JSON
+     */
+    @Nullable
+    public String maskPrefix(String jsonPrefix) {
+        StringWriter writer = new StringWriter(jsonPrefix.length());
+        try (JsonParser parser = jsonFactory.createParser(jsonPrefix);
+             JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            try {
+                copy(parser, generator, root);
+            } catch (StreamReadException e) {
+                // Truncation fails at the end of the input, not always with an EOF error (e.g. after a comma)
+                if (parser.currentLocation().getCharOffset() < jsonPrefix.length()) {
+                    return null;
+                }
+                generator.flush();
+                return writer.toString();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Copies the JSON value at the current token of the parser to the generator, masking the selected values.
+     *
+     * @param parser    the parser, positioned on the first token of a value
+     * @param generator the generator
+     * @throws IOException if the value cannot be read or written
+     */
+    public void mask(JsonParser parser, JsonGenerator generator) throws IOException {
+        copy(parser, generator, root);
+    }
+
+    private void copy(JsonParser parser, JsonGenerator generator, State state) throws IOException {
+        if (state == State.EMPTY) {
+            generator.copyCurrentStructure(parser);
+            return;
+        }
+        JsonToken token = parser.currentToken();
+        if (state.mask || (state.maskScalars && token != JsonToken.START_OBJECT)) {
+            generator.writeString(maskValue);
+            parser.skipChildren();
+            return;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                generator.writeFieldName(name);
+                parser.nextToken();
+                copy(parser, generator, state.field(name));
+            }
+            generator.writeEndObject();
+        } else if (token == JsonToken.START_ARRAY) {
+            generator.writeStartArray();
+            State element = state.element;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                copy(parser, generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private static List<String> splitPath(String path) {
+        String relativePath = path.startsWith("$.") ? path.substring(2) : path;
+        List<String> parts = new ArrayList<>();
+        StringBuilder currentPart = new StringBuilder();
+        boolean escaped = false;
+        for (int i = 0; i < relativePath.length(); i++) {
+            char c = relativePath.charAt(i);
+            if (c == '\\' && !escaped) {
+                escaped = true;
+            } else if (c == '.' && !escaped) {
+                parts.add(currentPart.toString());
+                currentPart.setLength(0);
+            } else {
+                escaped = false;
+                currentPart.append(c);
+            }
+        }
+        parts.add(currentPart.toString());
+        return parts;
+    }
+
+    /**
+     * A node of the trie of the configured paths, describing what applies to the fields of the value it is
+     * positioned on.
+     */
+    private static final class PathNode {
+
+        private static final String WILDCARD = "*";
+        private static final String ARRAY_SUFFIX = "[*]";
+
+        private final Map<String, PathNode> fields = new HashMap<>();
+        private final Set<String> maskedFields = new HashSet<>();
+        private final Map<String, PathNode> arrays = new HashMap<>();
+        private final Set<String> maskedArrays = new HashSet<>();
+        private PathNode wildcard;
+        private boolean maskAll;
+
+        private void add(List<String> parts, int index) {
+            String part = parts.get(index);
+            boolean last = index + 1 == parts.size();
+            int arraySuffix = part.indexOf(ARRAY_SUFFIX);
+            if (arraySuffix >= 0) {
+                String name = part.substring(0, arraySuffix);
+                if (last) {
+                    maskedArrays.add(name);
+                } else {
+                    arrays.computeIfAbsent(name, k -> new PathNode()).add(parts, index + 1);
+                }
+            } else if (WILDCARD.equals(part)) {
+                if (last) {
+                    maskAll = true;
+                } else {
+                    if (wildcard == null) {
+                        wildcard = new PathNode();
+                    }
+                    wildcard.add(parts, index + 1);
+                }
+            } else if (last) {
+                maskedFields.add(part);
+            } else {
+                fields.computeIfAbsent(part, k -> new PathNode()).add(parts, index + 1);
+            }
+        }
+    }
+
+    /**
+     * A state of the masking automaton, applying to a single JSON value.
+     */
+    private static final class State {
+
+        private static final State EMPTY = new State(false, false);
+        private static final State MASK = new State(true, false);
+
+        static {
+            EMPTY.element = EMPTY;
+            EMPTY.defaultField = EMPTY;
+            MASK.element = MASK;
+            MASK.defaultField = MASK;
+        }
+
+        /**
+         * Whether the value is replaced by the mask.
+         */
+        private final boolean mask;
+
+        /**
+         * Whether the value is replaced by the mask unless it is an object, whose field values are then masked.
+         */
+        private final boolean maskScalars;
+
+        private final Map<String, State> fields = new HashMap<>();
+        private State defaultField;
+        private State element;
+
+        private State(boolean mask, boolean maskScalars) {
+            this.mask = mask;
+            this.maskScalars = maskScalars;
+        }
+
+        private State field(String name) {
+            State state = fields.get(name);
+            return state != null ? state : defaultField;
+        }
+    }
+
+    /**
+     * Builds the automaton from the path trie by subset construction, sharing equivalent states.
+     */
+    private static final class Compiler {
+
+        private final Map<Key, State> states = new HashMap<>();
+
+        private State state(boolean maskScalars, boolean maskAll, boolean maskElements,
+                            boolean mask, Set<PathNode> at, Set<PathNode> elements) {
+            if (mask) {
+                return State.MASK;
+            }
+            boolean allMasked = maskAll || at.stream().anyMatch(node -> node.maskAll);
+            if (!maskScalars && !allMasked && !maskElements && at.isEmpty() && elements.isEmpty()) {
+                return State.EMPTY;
+            }
+            Key key = new Key(maskScalars, allMasked, maskElements, at, elements);
+            State state = states.get(key);
+            if (state != null) {
+                return state;
+            }
+            state = new State(false, maskScalars);
+            states.put(key, state);
+
+            boolean objectMaskAll = allMasked || maskScalars;
+            Set<String> names = new LinkedHashSet<>();
+            for (PathNode node : at) {
+                names.addAll(node.fields.keySet());
+                names.addAll(node.maskedFields);
+                names.addAll(node.arrays.keySet());
+                names.addAll(node.maskedArrays);
+            }
+            for (String name : names) {
+                state.fields.put(name, field(objectMaskAll, at, name));
+            }
+            state.defaultField = field(objectMaskAll, at, null);
+            state.element = state(allMasked, maskElements, false, false, elements, Set.of());
+            return state;
+        }
+
+        private State field(boolean objectMaskAll, Set<PathNode> at, String name) {
+            boolean mask = objectMaskAll;
+            boolean maskElements = false;
+            Set<PathNode> next = new LinkedHashSet<>();
+            Set<PathNode> elements = new LinkedHashSet<>();
+            for (PathNode node : at) {
+                if (node.wildcard != null) {
+                    next.add(node.wildcard);
+                }
+                if (name == null) {
+                    continue;
+                }
+                mask |= node.maskedFields.contains(name);
+                maskElements |= node.maskedArrays.contains(name);
+                PathNode child = node.fields.get(name);
+                if (child != null) {
+                    next.add(child);
+                }
+                PathNode array = node.arrays.get(name);
+                if (array != null) {
+                    elements.add(array);
+                }
+            }
+            return state(false, false, maskElements, mask, Set.copyOf(next), Set.copyOf(elements));
+        }
+    }
+
+    private record Key(boolean maskScalars, boolean maskAll, boolean maskElements,
+                       Set<PathNode> at, Set<PathNode> elements) {
+    }
+}
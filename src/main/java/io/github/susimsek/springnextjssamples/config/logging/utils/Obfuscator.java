@@ -18,6 +18,14 @@ public class Obfuscator {
         return obfuscationStrategy.maskBody(body);
     }
 
+    public String maskJsonBody(String body) {
+        return obfuscationStrategy.maskJsonBody(body);
+    }
+
+    public String maskBodyPrefix(String bodyPrefix) {
+        return obfuscationStrategy.maskBodyPrefix(bodyPrefix);
+    }
+
     public URI maskUriParameters(URI uri) {
         return obfuscationStrategy.maskUriParameters(uri);
     }
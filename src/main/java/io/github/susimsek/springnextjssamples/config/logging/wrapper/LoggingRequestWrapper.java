@@ -0,0 +1,119 @@
+package io.github.susimsek.springnextjssamples.config.logging.wrapper;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+/**
+ * Request wrapper caching the first bytes of the body for logging, like {@link ContentCachingRequestWrapper}, while
+ * counting every byte read, so that a truncated body is detected even without a {@code Content-Length} header.
+ *
+ * <p>The size of the body is its {@code Content-Length} when known. For chunked requests it is the number of bytes
+ * read, provided the handler read the body to its end; otherwise the size is unknown and the cached bytes may only be
+ * a prefix of the body.</p>
+ */
+public class LoggingRequestWrapper extends ContentCachingRequestWrapper {
+
+    /**
+     * The size returned by {@link #getContentSize()} when the body may not have been read to its end.
+     */
+    public static final long UNKNOWN_SIZE = -1;
+
+    private CountingInputStream inputStream;
+
+    /**
+     * Creates a wrapper for the given request.
+     *
+     * @param request           the request to wrap
+     * @param contentCacheLimit the maximum number of body bytes kept for logging
+     */
+    public LoggingRequestWrapper(HttpServletRequest request, int contentCacheLimit) {
+        super(request, contentCacheLimit);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new CountingInputStream(super.getInputStream());
+        }
+        return inputStream;
+    }
+
+    /**
+     * Returns the size of the request body.
+     *
+     * @return the size in bytes, or {@link #UNKNOWN_SIZE} if the body was read partially and its length is unknown
+     */
+    public long getContentSize() {
+        long bytesRead = inputStream != null ? inputStream.count : 0;
+        long contentLength = getContentLengthLong();
+        if (contentLength >= 0) {
+            return Math.max(contentLength, Math.max(bytesRead, getContentAsByteArray().length));
+        }
+        if (inputStream == null || inputStream.isFinished()) {
+            return Math.max(bytesRead, getContentAsByteArray().length);
+        }
+        return UNKNOWN_SIZE;
+    }
+
+    private static final class CountingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private long count;
+        private boolean endOfStream;
+
+        private CountingInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int ch = delegate.read();
+            if (ch == -1) {
+                endOfStream = true;
+            } else {
+                count++;
+            }
+            return ch;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            if (n == -1) {
+                endOfStream = true;
+            } else {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public int readLine(byte[] b, int off, int len) throws IOException {
+            int n = delegate.readLine(b, off, len);
+            if (n == -1) {
+                endOfStream = true;
+            } else {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return endOfStream || delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.susimsek.springnextjssamples.config.logging.wrapper;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+/**
+ * Response wrapper passing the body through to the client while keeping a bounded copy of its first bytes for
+ * logging.
+ *
+ * <p>Unlike {@link org.springframework.web.util.ContentCachingResponseWrapper}, the body is not held back until the
+ * handler completes, so the time to first byte and the heap usage do not depend on the response size. Only the
+ * first {@code captureLimit} bytes are kept, and none when the content type is excluded, e.g. server-sent events or
+ * binary downloads. With {@code errorsOnly}, the body is only kept when the status is a 4xx or 5xx one at the time
+ * it starts being written. The total number of bytes written is always counted.</p>
+ */
+public class LoggingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int captureLimit;
+    private final List<MediaType> excludedContentTypes;
+    private final boolean errorsOnly;
+    private TeeOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Creates a wrapper for the given response.
+     *
+     * @param response             the response to wrap
+     * @param captureLimit         the maximum number of body bytes kept for logging
+     * @param excludedContentTypes the content types whose body is not kept
+     */
+    public LoggingResponseWrapper(HttpServletResponse response, int captureLimit,
+                                  List<MediaType> excludedContentTypes) {
+        this(response, captureLimit, excludedContentTypes, false);
+    }
+
+    /**
+     * Creates a wrapper for the given response.
+     *
+     * @param response             the response to wrap
+     * @param captureLimit         the maximum number of body bytes kept for logging
+     * @param excludedContentTypes the content types whose body is not kept
+     * @param errorsOnly           whether the body is only kept for error responses
+     */
+    public LoggingResponseWrapper(HttpServletResponse response, int captureLimit,
+                                  List<MediaType> excludedContentTypes, boolean errorsOnly) {
+        super(response);
+        this.captureLimit = captureLimit;
+        this.excludedContentTypes = excludedContentTypes;
+        this.errorsOnly = errorsOnly;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response");
+        }
+        return teeOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response");
+            }
+            writer = newWriter();
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Discards the buffered body and the captured bytes, e.g. when an error response replaces a partially written
+     * one. Characters still buffered by the writer are dropped as well.
+     */
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardContent();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardContent();
+    }
+
+    /**
+     * Flushes the characters buffered by the writer, if any, to the client.
+     */
+    public void flush() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Returns the captured first bytes of the body.
+     *
+     * @return the captured bytes, empty if nothing was written or the content type is excluded
+     */
+    public byte[] getCapturedContent() {
+        return outputStream != null ? outputStream.captured.toByteArray() : new byte[0];
+    }
+
+    /**
+     * Returns the number of body bytes written to the client.
+     *
+     * @return the body size
+     */
+    public long getContentSize() {
+        return outputStream != null ? outputStream.count : 0;
+    }
+
+    private void discardContent() {
+        if (outputStream != null) {
+            outputStream.captured.reset();
+            outputStream.count = 0;
+            outputStream.capturing = null;
+        }
+        if (writer != null) {
+            try {
+                writer = newWriter();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to recreate the response writer", e);
+            }
+        }
+    }
+
+    private PrintWriter newWriter() throws IOException {
+        Charset charset = Charset.forName(getCharacterEncoding());
+        return new PrintWriter(new OutputStreamWriter(teeOutputStream(), charset));
+    }
+
+    private TeeOutputStream teeOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    private boolean isCaptured() {
+        if (errorsOnly && getStatus() < HttpStatus.BAD_REQUEST.value()) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (!StringUtils.hasText(contentType)) {
+            return true;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return excludedContentTypes.stream().noneMatch(excludedType -> excludedType.includes(mediaType));
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        private long count;
+        private Boolean capturing;
+
+        private TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (capturing() && captured.size() < captureLimit) {
+                captured.write(b);
+            }
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            if (capturing()) {
+                int remaining = captureLimit - captured.size();
+                if (remaining > 0) {
+                    captured.write(b, off, Math.min(len, remaining));
+                }
+            }
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private boolean capturing() {
+            if (capturing == null) {
+                capturing = captureLimit > 0 && isCaptured();
+            }
+            return capturing;
+        }
+    }
+}
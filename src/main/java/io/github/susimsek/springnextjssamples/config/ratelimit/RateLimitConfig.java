@@ -0,0 +1,75 @@
+package io.github.susimsek.springnextjssamples.config.ratelimit;
+
+import io.github.susimsek.springnextjssamples.security.ratelimit.InMemoryRateLimitStore;
+import io.github.susimsek.springnextjssamples.security.ratelimit.JdbcRateLimitStore;
+import io.github.susimsek.springnextjssamples.security.ratelimit.LeasingRateLimitStore;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimitBandwidth;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimitInstrumentation;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimitStore;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimiter;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimiterRegistry;
+import io.github.susimsek.springnextjssamples.security.ratelimit.WebSocketSessionInterceptor;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    public static final String GRAPHQL_RATE_LIMITER = "graphql";
+
+    @Bean
+    public RateLimiterRegistry rateLimiterRegistry(RateLimitProperties rateLimitProperties,
+                                                   ObjectProvider<JdbcRateLimitStore> jdbcRateLimitStore) {
+        if (!rateLimitProperties.isEnabled()) {
+            return new RateLimiterRegistry(List.of());
+        }
+        List<RateLimiter> rateLimiters = rateLimitProperties.getLimiters().entrySet().stream()
+            .map(entry -> {
+                RateLimitProperties.Limiter limiter = entry.getValue();
+                return new RateLimiter(
+                    entry.getKey(),
+                    RateLimitBandwidth.of(limiter.getLimitForPeriod(), limiter.getLimitRefreshPeriod()),
+                    limiter.getKeyResolver(),
+                    rateLimitStore(rateLimitProperties, limiter, jdbcRateLimitStore));
+            })
+            .toList();
+        return new RateLimiterRegistry(rateLimiters);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "jdbc")
+    public JdbcRateLimitStore jdbcRateLimitStore(JdbcTemplate jdbcTemplate,
+                                                 PlatformTransactionManager transactionManager) {
+        return new JdbcRateLimitStore(jdbcTemplate, transactionManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitInstrumentation rateLimitInstrumentation(RateLimiterRegistry rateLimiterRegistry) {
+        return new RateLimitInstrumentation(rateLimiterRegistry.find(GRAPHQL_RATE_LIMITER));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public WebSocketSessionInterceptor webSocketSessionInterceptor() {
+        return new WebSocketSessionInterceptor();
+    }
+
+    private RateLimitStore rateLimitStore(RateLimitProperties rateLimitProperties,
+                                          RateLimitProperties.Limiter limiter,
+                                          ObjectProvider<JdbcRateLimitStore> jdbcRateLimitStore) {
+        if (rateLimitProperties.getStore() == RateLimitProperties.Store.JDBC) {
+            RateLimitProperties.Lease lease = rateLimitProperties.getLease();
+            return new LeasingRateLimitStore(jdbcRateLimitStore.getObject(),
+                lease.getDuration(), lease.getMaxFraction(), limiter.getMaxBuckets());
+        }
+        return new InMemoryRateLimitStore(limiter.getMaxBuckets(), limiter.getLimitRefreshPeriod());
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.susimsek.springnextjssamples.config.ratelimit;
+
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimitKeyResolver;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for request rate limiting.
+ * <p>
+ * Rate limiters are configured by name and attached to request matchers in the security configuration.
+ * </p>
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Indicates whether rate limiting is enabled.
+     * Default is {@code true}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The store holding the token buckets.
+     * Default is {@link Store#MEMORY}.
+     */
+    @NotNull(message = "{validation.field.notNull}")
+    private Store store = Store.MEMORY;
+
+    /**
+     * Local leasing of permits from a shared store.
+     */
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Lease lease = new Lease();
+
+    /**
+     * Settings of the JDBC store.
+     */
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Jdbc jdbc = new Jdbc();
+
+    /**
+     * The rate limiters by name.
+     */
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Map<String, Limiter> limiters = new LinkedHashMap<>();
+
+    /**
+     * Configuration properties of a single rate limiter.
+     */
+    @Getter
+    @Setter
+    public static class Limiter {
+
+        /**
+         * The number of requests a client may send per refresh period.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer limitForPeriod;
+
+        /**
+         * The period over which the permits are refilled.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration limitRefreshPeriod;
+
+        /**
+         * The strategy identifying the client a request is counted against.
+         * Default is {@link RateLimitKeyResolver#PRINCIPAL}.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private RateLimitKeyResolver keyResolver = RateLimitKeyResolver.PRINCIPAL;
+
+        /**
+         * The maximum number of client buckets, or leases with a shared store, kept in memory.
+         * Default is {@code 100000}.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Long maxBuckets = 100_000L;
+    }
+
+    /**
+     * The stores available for token buckets.
+     */
+    public enum Store {
+
+        /**
+         * Buckets are kept in the memory of each application instance; limits apply per instance.
+         */
+        MEMORY,
+
+        /**
+         * Buckets are shared by all application instances through the database, with permits leased locally.
+         */
+        JDBC
+    }
+
+    /**
+     * Configuration properties of the local leasing of permits from a shared store.
+     */
+    @Getter
+    @Setter
+    public static class Lease {
+
+        /**
+         * The time over which a lease should be used; the lease size adapts to the request rate so that the
+         * shared store is consulted about once per lease duration and client.
+         * <p>
+         * Default is 100 milliseconds. Permits not used within this time are dropped.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration duration = Duration.ofMillis(100);
+
+        /**
+         * The maximum fraction of a bucket leased at once by an instance.
+         * Default is {@code 0.1}.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @DecimalMin(value = "0.0", inclusive = false, message = "{validation.field.min}")
+        @DecimalMax(value = "1.0", message = "{validation.field.max}")
+        private Double maxFraction = 0.1;
+    }
+
+    /**
+     * Configuration properties of the JDBC store.
+     */
+    @Getter
+    @Setter
+    public static class Jdbc {
+
+        /**
+         * The interval at which the rows of full buckets are deleted.
+         * Default is five minutes.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration cleanupInterval = Duration.ofMinutes(5);
+    }
+}
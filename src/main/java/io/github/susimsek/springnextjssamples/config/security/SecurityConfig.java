@@ -6,11 +6,14 @@ import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 import io.github.susimsek.springnextjssamples.config.RequestMatcherConfig;
+import io.github.susimsek.springnextjssamples.exception.ratelimit.RateLimitExceptionHandler;
 import io.github.susimsek.springnextjssamples.exception.security.SecurityProblemSupport;
 import io.github.susimsek.springnextjssamples.repository.UserRepository;
 import io.github.susimsek.springnextjssamples.security.SecurityProperties;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimiterRegistry;
 import io.github.susimsek.springnextjssamples.service.DomainUserDetailsService;
 import io.github.susimsek.springnextjssamples.service.mapper.UserMapper;
+import io.github.susimsek.springnextjssamples.web.filter.RateLimitFilter;
 import io.github.susimsek.springnextjssamples.web.filter.SpaWebFilter;
 import io.github.susimsek.springnextjssamples.web.filter.XssFilter;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +47,9 @@ import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String TOKEN_RATE_LIMITER = "token";
+    private static final String API_RATE_LIMITER = "api";
+
     private final SecurityProperties securityProperties;
     private final Environment env;
 
@@ -52,7 +58,9 @@ public class SecurityConfig {
     public SecurityFilterChain defaultSecurityFilterChain(
         HttpSecurity http,
         RequestMatcherConfig requestMatcherConfig,
-        SecurityProblemSupport problemSupport) throws Exception {
+        SecurityProblemSupport problemSupport,
+        RateLimiterRegistry rateLimiterRegistry,
+        RateLimitExceptionHandler rateLimitExceptionHandler) throws Exception {
         if (env.acceptsProfiles(Profiles.of(SPRING_PROFILE_DEVELOPMENT))) {
             http.authorizeHttpRequests(authz -> authz.requestMatchers(antMatcher("/h2-console/**")).permitAll());
         }
@@ -88,6 +96,8 @@ public class SecurityConfig {
                 .accessDeniedHandler(problemSupport)
                 .jwt(withDefaults()))
             .addFilterAfter(new SpaWebFilter(), BasicAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter(requestMatcherConfig, rateLimiterRegistry, rateLimitExceptionHandler),
+                BearerTokenAuthenticationFilter.class)
             .addFilterAfter(xssFilter(requestMatcherConfig), BearerTokenAuthenticationFilter.class);
         return http.build();
     }
@@ -113,12 +123,29 @@ public class SecurityConfig {
         return new DomainUserDetailsService(userRepository, userMapper);
     }
 
-    public XssFilter xssFilter(
-        RequestMatcherConfig requestMatcherConfig) {
-        return XssFilter.builder()
+    public RateLimitFilter rateLimitFilter(
+        RequestMatcherConfig requestMatcherConfig,
+        RateLimiterRegistry rateLimiterRegistry,
+        RateLimitExceptionHandler rateLimitExceptionHandler) {
+        return RateLimitFilter.builder(rateLimiterRegistry, rateLimitExceptionHandler)
             .requestMatchers(requestMatcherConfig.staticResources()).permitAll()
             .requestMatchers(requestMatcherConfig.swaggerPaths()).permitAll()
             .requestMatchers(requestMatcherConfig.actuatorPaths()).permitAll()
+            .requestMatchers(requestMatcherConfig.graphqlPath()).permitAll()
+            .requestMatchers(requestMatcherConfig.subscriptionPath()).permitAll()
+            .requestMatchers(requestMatcherConfig.graphiqlPath()).permitAll()
+            .requestMatchers(requestMatcherConfig.tokenPath()).limitedBy(TOKEN_RATE_LIMITER)
+            .anyRequest().limitedBy(API_RATE_LIMITER)
+            .build();
+    }
+
+    public XssFilter xssFilter(
+        RequestMatcherConfig requestMatcherConfig) {
+        return XssFilter.builder()
+            .requestMatchers(requestMatcherConfig.loginResourcePaths()).permitAll()
+            .requestMatchers(requestMatcherConfig.staticResourcePaths()).permitAll()
+            .requestMatchers(requestMatcherConfig.swaggerResourcePaths()).permitAll()
+            .requestMatchers(requestMatcherConfig.actuatorEndpoints()).permitAll()
             .anyRequest().sanitized()
             .nonSanitizedHeaders(
                 HttpHeaders.CONTENT_ENCODING, HttpHeaders.CACHE_CONTROL,
@@ -11,17 +11,26 @@ import io.github.susimsek.springnextjssamples.repository.KeyRepository;
 import io.github.susimsek.springnextjssamples.security.AuthoritiesConstants;
 import io.github.susimsek.springnextjssamples.security.SecurityProperties;
 import io.github.susimsek.springnextjssamples.security.jwk.DomainJWKSource;
+import io.github.susimsek.springnextjssamples.security.key.KeyCryptoRegistry;
+import io.github.susimsek.springnextjssamples.security.key.KeyRotationLock;
+import io.github.susimsek.springnextjssamples.security.key.KeyRotationService;
 import io.github.susimsek.springnextjssamples.security.key.KeyService;
+import io.github.susimsek.springnextjssamples.security.key.PostgresKeyRotationLock;
 import io.github.susimsek.springnextjssamples.security.token.DomainTokenEncoder;
 import io.github.susimsek.springnextjssamples.security.token.TokenDecoder;
 import io.github.susimsek.springnextjssamples.security.token.TokenEncoder;
 import io.github.susimsek.springnextjssamples.security.token.TokenGenerator;
 import io.github.susimsek.springnextjssamples.service.DomainKeyService;
 import io.github.susimsek.springnextjssamples.service.mapper.KeyMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Role;
@@ -33,6 +42,7 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration(proxyBeanMethods = false)
 @RequiredArgsConstructor
@@ -41,8 +51,9 @@ public class SecurityJwtConfig {
     @Bean
     public KeyService oAuth2KeyService(
         KeyRepository keyRepository,
-        KeyMapper keyMapper) {
-        return new DomainKeyService(keyRepository, keyMapper);
+        KeyMapper keyMapper,
+        ApplicationEventPublisher eventPublisher) {
+        return new DomainKeyService(keyRepository, keyMapper, eventPublisher);
     }
 
     @Bean
@@ -52,14 +63,22 @@ public class SecurityJwtConfig {
     }
 
     @Bean
-    public TokenEncoder tokenEncoder(JWKSource<SecurityContext> jwkSource) {
-        return new DomainTokenEncoder(jwkSource);
+    public KeyCryptoRegistry keyCryptoRegistry(MeterRegistry meterRegistry) {
+        return new KeyCryptoRegistry(meterRegistry);
+    }
+
+    @Bean
+    public TokenEncoder tokenEncoder(JWKSource<SecurityContext> jwkSource,
+                                     KeyCryptoRegistry keyCryptoRegistry) {
+        return new DomainTokenEncoder(jwkSource, keyCryptoRegistry);
     }
 
     @Bean
     public JwtDecoder jwtDecoder(
         KeyService keyService,
-        JWKSource<SecurityContext> jwkSource) {
+        JWKSource<SecurityContext> jwkSource,
+        KeyCryptoRegistry keyCryptoRegistry,
+        SecurityProperties securityProperties) {
         Set<JWSAlgorithm> jwsAlgs = new HashSet<>();
         jwsAlgs.addAll(JWSAlgorithm.Family.RSA);
         jwsAlgs.addAll(JWSAlgorithm.Family.EC);
@@ -67,9 +86,12 @@ public class SecurityJwtConfig {
         ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
         JWSKeySelector<SecurityContext> jwsKeySelector = new JWSVerificationKeySelector<>(jwsAlgs, jwkSource);
         jwtProcessor.setJWSKeySelector(jwsKeySelector);
+        jwtProcessor.setJWSVerifierFactory(keyCryptoRegistry);
         jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
         });
-        return new TokenDecoder(keyService, jwtProcessor);
+        TokenDecoder tokenDecoder = new TokenDecoder(keyService, jwtProcessor, keyCryptoRegistry);
+        tokenDecoder.setCacheMaximumSize(securityProperties.getToken().getDecodedTokenCacheSize());
+        return tokenDecoder;
     }
 
     @Bean
@@ -83,11 +105,25 @@ public class SecurityJwtConfig {
         return jwtAuthenticationConverter;
     }
 
+    @Bean
+    public KeyRotationService keyRotationService(KeyService keyService,
+                                                 SecurityProperties securityProperties,
+                                                 @Qualifier("taskExecutor") Executor taskExecutor,
+                                                 DataSource dataSource,
+                                                 PlatformTransactionManager transactionManager) {
+        KeyRotationLock rotationLock = switch (securityProperties.getKeyRotation().getLock()) {
+            case LOCAL -> KeyRotationLock.LOCAL;
+            case POSTGRES -> new PostgresKeyRotationLock(dataSource, transactionManager);
+        };
+        return new KeyRotationService(keyService, securityProperties, taskExecutor, rotationLock);
+    }
+
     @Bean
     public TokenGenerator tokenGenerator(TokenEncoder tokenEncoder,
                                          KeyService oAuth2KeyService,
-                                         SecurityProperties securityProperties) {
-        return new TokenGenerator(tokenEncoder, oAuth2KeyService, securityProperties);
+                                         SecurityProperties securityProperties,
+                                         KeyRotationService keyRotationService) {
+        return new TokenGenerator(tokenEncoder, oAuth2KeyService, securityProperties, keyRotationService);
     }
 
     @Bean
@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -53,6 +54,9 @@ public class KeyEntity extends BaseEntity implements Serializable {
     @Column(name = "use", length = 255)
     private String use;
 
+    @Column(name = "activated_at")
+    private Instant activatedAt;
+
     @Override
     public final boolean equals(Object obj) {
         if (this == obj) {
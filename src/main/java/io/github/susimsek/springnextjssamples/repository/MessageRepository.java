@@ -1,12 +1,20 @@
 package io.github.susimsek.springnextjssamples.repository;
 
 
+import io.github.susimsek.springnextjssamples.config.i18n.MessageVersion;
 import io.github.susimsek.springnextjssamples.entity.MessageEntity;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface MessageRepository extends JpaRepository<MessageEntity, Long> {
 
-    List<MessageEntity> findByLocale(String locale);
+    @Query("select new io.github.susimsek.springnextjssamples.config.i18n.MessageVersion("
+        + "count(m), max(coalesce(m.updatedAt, m.createdAt))) from MessageEntity m")
+    MessageVersion findVersion();
+
+    List<MessageEntity> findByCreatedAtGreaterThanEqualOrUpdatedAtGreaterThanEqual(Instant createdAt,
+                                                                                   Instant updatedAt);
 
 }
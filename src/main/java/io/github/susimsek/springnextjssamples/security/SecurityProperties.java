@@ -1,6 +1,7 @@
 package io.github.susimsek.springnextjssamples.security;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
@@ -37,6 +38,12 @@ public class SecurityProperties {
     @Valid
     private Token token;
 
+    /**
+     * Nested configuration properties for signing key rotation.
+     */
+    @Valid
+    private KeyRotation keyRotation = new KeyRotation();
+
     /**
      * Configuration properties for token-based authentication settings.
      * <p>
@@ -76,5 +83,88 @@ public class SecurityProperties {
          * The optional key identifier used for token signing or encryption.
          */
         private String keyId;
+
+        /**
+         * The maximum number of decoded tokens kept in memory to skip decryption and signature
+         * verification of repeated bearers.
+         * <p>
+         * Default is {@code 10000}. A value of {@code 0} disables the decoded token cache.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 0, message = "{validation.field.min}")
+        private Long decodedTokenCacheSize = 10000L;
+
+        /**
+         * The interval at which the in-memory JWK set is reconciled with the key store.
+         * <p>
+         * Default is five minutes. Changes made through the key service are applied immediately.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration jwkSetRefreshInterval = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Configuration properties for the rotation of token signing keys.
+     * <p>
+     * When enabled, a new signing key is generated in the background and published for verification
+     * ahead of its activation; the previous key is retired once every token it signed has expired.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class KeyRotation {
+
+        /**
+         * Indicates whether signing keys are rotated automatically.
+         * Default is {@code false}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The lifetime of a signing key before it is replaced.
+         * <p>
+         * Default is thirty days.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration rotationInterval = Duration.ofDays(30);
+
+        /**
+         * How long a new signing key is published for verification before it is used for signing.
+         * <p>
+         * Default is one hour. Must exceed the JWK set refresh interval of the other instances.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration publishAhead = Duration.ofHours(1);
+
+        /**
+         * The interval at which the rotation schedule is checked.
+         * <p>
+         * Default is five minutes.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration checkInterval = Duration.ofMinutes(5);
+
+        /**
+         * How instances sharing the key store coordinate the publication of new signing keys.
+         * <p>
+         * Default is {@code local}, for a single instance. Set to {@code postgres} when several instances
+         * run on a PostgreSQL database.
+         * </p>
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private LockType lock = LockType.LOCAL;
+    }
+
+    /**
+     * The coordination of key rotation between instances.
+     */
+    public enum LockType {
+        LOCAL,
+        POSTGRES
     }
 }
@@ -1,22 +1,38 @@
 package io.github.susimsek.springnextjssamples.security.jwk;
 
+import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
 import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import io.github.susimsek.springnextjssamples.security.key.Key;
+import io.github.susimsek.springnextjssamples.security.key.KeyChangedEvent;
 import io.github.susimsek.springnextjssamples.security.key.KeyService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * DomainJWKSource is an implementation of {@link JWKSource} that fetches JSON Web Keys (JWK) from a custom {@link KeyService}.
  * This service provides the necessary public keys to be used for verifying JSON Web Tokens (JWT) in a domain-specific context.
  *
- * <p>This class interacts with {@link KeyService} to retrieve all available keys, filters them to match the selector criteria,
- * and then returns a list of JWKs that satisfy the requirements specified by the {@link JWKSelector}.
+ * <p>This class keeps an immutable, pre-built {@link JWKSet} snapshot of the keys returned by {@link KeyService},
+ * indexed by key ID, key use and algorithm. Key selection is a hash lookup followed by the {@link JWKSelector}
+ * match on the few candidates, without querying the key store or building {@link JWK} instances per request.
+ * The snapshot is swapped atomically when a {@link KeyChangedEvent} is committed and on a periodic reconciliation.
  * </p>
  *
  * <p>Note: This class is annotated with {@link RequiredArgsConstructor} to enable constructor injection of {@link KeyService}.
@@ -36,16 +52,23 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class DomainJWKSource implements JWKSource<SecurityContext> {
 
+    private final Log logger = LogFactory.getLog(this.getClass());
+
     /**
      * The KeyService instance used to retrieve keys.
      */
     private final KeyService keyService;
 
+    /**
+     * The current snapshot of the key store, {@code null} until first loaded.
+     */
+    private volatile Snapshot snapshot;
+
     /**
      * Retrieves a list of {@link JWK} that match the given {@link JWKSelector}.
      *
-     * <p>This method uses {@link KeyService} to fetch all available keys, maps each key to a {@link JWK},
-     * filters the JWKs based on the criteria provided by {@link JWKSelector}, and returns the filtered list.
+     * <p>This method narrows the current snapshot down to the candidates indexed under the key IDs, key uses
+     * or algorithms requested by the selector, and returns those accepted by the selector's matcher.
      * </p>
      *
      * @param jwkSelector the selector used to specify the matching criteria for the JWKs
@@ -55,9 +78,143 @@ public class DomainJWKSource implements JWKSource<SecurityContext> {
      */
     @Override
     public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
-        return this.keyService.findAll().stream()
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        JWKMatcher matcher = jwkSelector.getMatcher();
+        List<JWK> candidates = current.candidates(matcher);
+        if (candidates.size() == 1) {
+            return matcher.matches(candidates.getFirst()) ? candidates : Collections.emptyList();
+        }
+        List<JWK> matches = new ArrayList<>(candidates.size());
+        for (JWK jwk : candidates) {
+            if (matcher.matches(jwk)) {
+                matches.add(jwk);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the {@link JWKSet} of the current snapshot, loading it if necessary.
+     *
+     * @return the current JWK set
+     */
+    public JWKSet getJWKSet() {
+        Snapshot current = this.snapshot;
+        return current != null ? current.jwkSet() : refresh().jwkSet();
+    }
+
+    /**
+     * Rebuilds the snapshot from the {@link KeyService} and swaps it in atomically.
+     *
+     * @return the new snapshot
+     */
+    public synchronized Snapshot refresh() {
+        List<JWK> jwks = this.keyService.findAll().stream()
             .map(Key::toRSAKey)
-            .filter(rsaKey -> jwkSelector.getMatcher().matches(rsaKey))
-            .collect(Collectors.toList());
+            .map(JWK.class::cast)
+            .toList();
+        Snapshot refreshed = Snapshot.of(new JWKSet(jwks));
+        this.snapshot = refreshed;
+        return refreshed;
+    }
+
+    /**
+     * Rebuilds the snapshot once a key change has been committed.
+     *
+     * @param event the key change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeyChanged(KeyChangedEvent event) {
+        this.logger.debug("Refreshing JWK set after key '%s' changed".formatted(event.kid()));
+        refresh();
+    }
+
+    /**
+     * Periodically reconciles the snapshot with the key store, picking up changes made outside
+     * this application instance.
+     */
+    @Scheduled(
+        initialDelayString = "${security.token.jwk-set-refresh-interval:PT5M}",
+        fixedDelayString = "${security.token.jwk-set-refresh-interval:PT5M}")
+    public void reconcile() {
+        if (this.snapshot != null) {
+            refresh();
+        }
+    }
+
+    /**
+     * An immutable view of the key store with lookup indexes by key ID, key use and algorithm.
+     *
+     * @param jwkSet      the JWK set
+     * @param byKeyId     the keys indexed by key ID
+     * @param byKeyUse    the keys indexed by key use
+     * @param byAlgorithm the keys indexed by algorithm
+     */
+    public record Snapshot(
+        JWKSet jwkSet,
+        Map<String, List<JWK>> byKeyId,
+        Map<KeyUse, List<JWK>> byKeyUse,
+        Map<Algorithm, List<JWK>> byAlgorithm) {
+
+        /**
+         * Builds a snapshot and its indexes from the given {@link JWKSet}.
+         *
+         * @param jwkSet the JWK set
+         * @return the created snapshot
+         */
+        static Snapshot of(JWKSet jwkSet) {
+            Map<String, List<JWK>> byKeyId = new HashMap<>();
+            Map<KeyUse, List<JWK>> byKeyUse = new HashMap<>();
+            Map<Algorithm, List<JWK>> byAlgorithm = new HashMap<>();
+            for (JWK jwk : jwkSet.getKeys()) {
+                byKeyId.computeIfAbsent(jwk.getKeyID(), k -> new ArrayList<>()).add(jwk);
+                byKeyUse.computeIfAbsent(jwk.getKeyUse(), k -> new ArrayList<>()).add(jwk);
+                byAlgorithm.computeIfAbsent(jwk.getAlgorithm(), k -> new ArrayList<>()).add(jwk);
+            }
+            return new Snapshot(jwkSet, freeze(byKeyId), freeze(byKeyUse), freeze(byAlgorithm));
+        }
+
+        /**
+         * Returns the keys that may satisfy the given matcher, using the most selective index available.
+         * The returned keys still need to be checked against the matcher.
+         *
+         * @param matcher the JWK matcher
+         * @return the candidate keys
+         */
+        List<JWK> candidates(JWKMatcher matcher) {
+            if (matcher == null) {
+                return jwkSet.getKeys();
+            }
+            if (matcher.getKeyIDs() != null) {
+                return lookup(byKeyId, matcher.getKeyIDs());
+            }
+            if (matcher.getKeyUses() != null) {
+                return lookup(byKeyUse, matcher.getKeyUses());
+            }
+            if (matcher.getAlgorithms() != null) {
+                return lookup(byAlgorithm, matcher.getAlgorithms());
+            }
+            return jwkSet.getKeys();
+        }
+
+        private static <T> List<JWK> lookup(Map<T, List<JWK>> index, Set<T> values) {
+            if (values.size() == 1) {
+                return index.getOrDefault(values.iterator().next(), Collections.emptyList());
+            }
+            Set<JWK> candidates = new LinkedHashSet<>();
+            for (T value : values) {
+                candidates.addAll(index.getOrDefault(value, Collections.emptyList()));
+            }
+            return List.copyOf(candidates);
+        }
+
+        private static <T> Map<T, List<JWK>> freeze(Map<T, List<JWK>> index) {
+            Map<T, List<JWK>> frozen = new HashMap<>(index.size());
+            index.forEach((value, jwks) -> frozen.put(value, List.copyOf(jwks)));
+            return Collections.unmodifiableMap(frozen);
+        }
     }
 }
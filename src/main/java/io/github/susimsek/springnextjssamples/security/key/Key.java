@@ -1,25 +1,19 @@
 package io.github.susimsek.springnextjssamples.security.key;
 
-import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PRIVATE_KEY_FOOTER;
-import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PRIVATE_KEY_HEADER;
-import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PUBLIC_KEY_FOOTER;
-import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PUBLIC_KEY_HEADER;
-
 import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.Requirement;
 import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
-import java.io.ByteArrayInputStream;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.springframework.security.converter.RsaKeyConverters;
 
 /**
  * Represents a cryptographic key used within the application, encapsulating both public and private key information.
@@ -31,7 +25,8 @@ import org.springframework.security.converter.RsaKeyConverters;
  *
  * <p>The {@code Builder} inner class supports the chaining of methods to set key properties such as id, type,
  * algorithm, public and private keys (from PEM-formatted strings), and other attributes. The {@link #toRSAKey()} method
- * is available for converting the key to an {@link RSAKey}.</p>
+ * is available for converting the key to an {@link RSAKey}. Decoded key material is shared through
+ * {@link KeyMaterialCache}, so building the same key again does not re-parse its PEM content.</p>
  *
  * <p>Example usage:
  * <pre>
@@ -44,6 +39,7 @@ import org.springframework.security.converter.RsaKeyConverters;
  *                  .active(true)
  *                  .kid("kid-1234")
  *                  .use("sig")
+ *                  .activatedAt(Instant.now())
  *                  .build();
  * </pre>
  * </p>
@@ -96,20 +92,36 @@ public class Key implements Serializable {
      */
     private KeyUse use;
 
+    /**
+     * Time from which the key is used for signing, or {@code null} if it has been in use since its creation.
+     */
+    private Instant activatedAt;
+
+    /**
+     * Pre-built JWK representation shared through {@link KeyMaterialCache}, if available.
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private transient RSAKey rsaKey;
+
     /**
      * Private constructor to create an instance using the {@link Builder}.
      *
      * @param builder the {@link Builder} instance containing key properties.
      */
     private Key(Builder builder) {
+        KeyMaterialCache.KeyMaterial keyMaterial = KeyMaterialCache.get(
+            builder.kid, builder.publicKey, builder.privateKey, builder.use, builder.algorithm);
         this.id = builder.id;
         this.type = builder.type;
         this.algorithm = builder.algorithm;
-        this.publicKey = builder.publicKey;
-        this.privateKey = builder.privateKey;
+        this.publicKey = keyMaterial.publicKey();
+        this.privateKey = keyMaterial.privateKey();
         this.active = builder.active;
         this.kid = builder.kid;
         this.use = builder.use;
+        this.activatedAt = builder.activatedAt;
+        this.rsaKey = keyMaterial.rsaKey();
     }
 
     /**
@@ -128,6 +140,9 @@ public class Key implements Serializable {
      * @return the converted RSAKey instance.
      */
     public RSAKey toRSAKey() {
+        if (rsaKey != null) {
+            return rsaKey;
+        }
         return new RSAKey.Builder((RSAPublicKey) publicKey)
             .privateKey(privateKey)
             .keyUse(use)
@@ -145,11 +160,12 @@ public class Key implements Serializable {
         private String id;
         private String type;
         private Algorithm algorithm;
-        private PublicKey publicKey;
-        private PrivateKey privateKey;
+        private String publicKey;
+        private String privateKey;
         private boolean active;
         private String kid;
         private KeyUse use;
+        private Instant activatedAt;
 
         /**
          * Sets the identifier of the key.
@@ -185,28 +201,26 @@ public class Key implements Serializable {
         }
 
         /**
-         * Loads and sets the public key from a PEM-formatted string.
+         * Sets the public key from a PEM-formatted string. The key is decoded on {@link #build()},
+         * reusing previously decoded material when available.
          *
          * @param publicKey the public key in PEM format.
          * @return the Builder instance.
          */
         public Builder publicKey(String publicKey) {
-            String formattedPublicKey = PUBLIC_KEY_HEADER + publicKey + PUBLIC_KEY_FOOTER;
-            this.publicKey = RsaKeyConverters.x509().convert(new ByteArrayInputStream(
-                formattedPublicKey.getBytes(StandardCharsets.UTF_8)));
+            this.publicKey = publicKey;
             return this;
         }
 
         /**
-         * Loads and sets the private key from a PEM-formatted string.
+         * Sets the private key from a PEM-formatted string. The key is decoded on {@link #build()},
+         * reusing previously decoded material when available.
          *
          * @param privateKey the private key in PEM format.
          * @return the Builder instance.
          */
         public Builder privateKey(String privateKey) {
-            String formattedPrivateKey = PRIVATE_KEY_HEADER + privateKey + PRIVATE_KEY_FOOTER;
-            this.privateKey = RsaKeyConverters.pkcs8().convert(new ByteArrayInputStream(
-                formattedPrivateKey.getBytes(StandardCharsets.UTF_8)));
+            this.privateKey = privateKey;
             return this;
         }
 
@@ -243,6 +257,17 @@ public class Key implements Serializable {
             return this;
         }
 
+        /**
+         * Sets the time from which the key is used for signing.
+         *
+         * @param activatedAt the activation time, or {@code null} if the key is active since its creation.
+         * @return the Builder instance.
+         */
+        public Builder activatedAt(Instant activatedAt) {
+            this.activatedAt = activatedAt;
+            return this;
+        }
+
         /**
          * Builds and returns a {@link Key} instance based on the configured properties.
          *
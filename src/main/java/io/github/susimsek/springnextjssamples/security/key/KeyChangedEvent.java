@@ -0,0 +1,62 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@code KeyChangedEvent} is published by a {@link KeyService} after a {@link Key} has been saved or removed.
+ * Components that keep derived state of the key store (decoded tokens, JWK sets, crypto primitives) listen
+ * to this event to invalidate what they hold.
+ *
+ * <p>Example usage:
+ * <pre>
+ *     eventPublisher.publishEvent(KeyChangedEvent.saved(key));
+ * </pre>
+ * </p>
+ *
+ * @param key     the key that has been changed
+ * @param removed {@code true} if the key has been removed from the store
+ * @see KeyService
+ */
+public record KeyChangedEvent(Key key, boolean removed) {
+
+    /**
+     * Creates a {@code KeyChangedEvent} for a saved (inserted or updated) key.
+     *
+     * @param key the saved key
+     * @return a new {@code KeyChangedEvent} instance
+     */
+    public static KeyChangedEvent saved(Key key) {
+        Assert.notNull(key, "key cannot be null");
+        return new KeyChangedEvent(key, false);
+    }
+
+    /**
+     * Creates a {@code KeyChangedEvent} for a removed key.
+     *
+     * @param key the removed key
+     * @return a new {@code KeyChangedEvent} instance
+     */
+    public static KeyChangedEvent removed(Key key) {
+        Assert.notNull(key, "key cannot be null");
+        return new KeyChangedEvent(key, true);
+    }
+
+    /**
+     * Returns the key ID (kid) of the changed key.
+     *
+     * @return the key ID
+     */
+    public String kid() {
+        return key.getKid();
+    }
+
+    /**
+     * Indicates whether the key can no longer be used, either because it has been removed
+     * or because it has been saved as inactive.
+     *
+     * @return {@code true} if the key has been deactivated
+     */
+    public boolean deactivated() {
+        return removed || !key.isActive();
+    }
+}
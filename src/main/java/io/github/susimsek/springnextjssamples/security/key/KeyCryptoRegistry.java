@@ -0,0 +1,261 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEEncrypter;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSADecrypter;
+import com.nimbusds.jose.crypto.RSAEncrypter;
+import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.produce.JWSSignerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.interfaces.RSAPublicKey;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code KeyCryptoRegistry} keeps ready-to-use JOSE signers, verifiers, encrypters and decrypters per key ID (kid),
+ * so that the token pipeline does not build a new crypto primitive for every token.
+ *
+ * <p>Each entry is bound to the {@link JWK} it was built from. A lookup with the same JWK instance (or an equal one)
+ * is served from the entry; a different JWK for the same kid, as happens after key rotation, rebuilds the entry.
+ * Entries are also discarded when a {@link KeyChangedEvent} is committed. Lookups are counted in the
+ * {@code security.key.crypto} metric, tagged by operation and by result ({@code hit} or {@code rebuild}).</p>
+ *
+ * <p>This registry also acts as a {@link JWSVerifierFactory}, returning pooled verifiers for JWS headers
+ * that carry a key ID.</p>
+ *
+ * @see KeyChangedEvent
+ */
+public class KeyCryptoRegistry implements JWSVerifierFactory {
+
+    private static final String METRIC_NAME = "security.key.crypto";
+    private static final JWSSignerFactory JWS_SIGNER_FACTORY = new DefaultJWSSignerFactory();
+
+    private final Log logger = LogFactory.getLog(this.getClass());
+    private final JWSVerifierFactory defaultVerifierFactory = new DefaultJWSVerifierFactory();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Operation, Counter> hitCounters = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rebuildCounters = new EnumMap<>(Operation.class);
+
+    /**
+     * Creates a registry that records its lookups in the given {@link MeterRegistry}.
+     *
+     * @param meterRegistry the meter registry
+     */
+    public KeyCryptoRegistry(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            hitCounters.put(operation, counter(meterRegistry, operation, "hit"));
+            rebuildCounters.put(operation, counter(meterRegistry, operation, "rebuild"));
+        }
+    }
+
+    /**
+     * Returns the signer for the given JWK.
+     *
+     * @param jwk the signing key
+     * @return the signer
+     * @throws JOSEException if the signer cannot be created
+     */
+    public JWSSigner signer(JWK jwk) throws JOSEException {
+        Entry entry = entry(jwk);
+        JWSSigner signer = entry.signer;
+        if (signer != null) {
+            record(Operation.SIGN, true);
+            return signer;
+        }
+        signer = JWS_SIGNER_FACTORY.createJWSSigner(jwk);
+        entry.signer = signer;
+        record(Operation.SIGN, false);
+        return signer;
+    }
+
+    /**
+     * Returns the encrypter for the given RSA key.
+     *
+     * @param rsaKey the encryption key
+     * @return the encrypter
+     * @throws JOSEException if the encrypter cannot be created
+     */
+    public JWEEncrypter encrypter(RSAKey rsaKey) throws JOSEException {
+        Entry entry = entry(rsaKey);
+        JWEEncrypter encrypter = entry.encrypter;
+        if (encrypter != null) {
+            record(Operation.ENCRYPT, true);
+            return encrypter;
+        }
+        encrypter = new RSAEncrypter(entry.publicKey());
+        entry.encrypter = encrypter;
+        record(Operation.ENCRYPT, false);
+        return encrypter;
+    }
+
+    /**
+     * Returns the decrypter for the given RSA key.
+     *
+     * @param rsaKey the decryption key, including its private part
+     * @return the decrypter
+     * @throws JOSEException if the decrypter cannot be created
+     */
+    public JWEDecrypter decrypter(RSAKey rsaKey) throws JOSEException {
+        Entry entry = entry(rsaKey);
+        JWEDecrypter decrypter = entry.decrypter;
+        if (decrypter != null) {
+            record(Operation.DECRYPT, true);
+            return decrypter;
+        }
+        decrypter = new RSADecrypter(rsaKey);
+        entry.decrypter = decrypter;
+        record(Operation.DECRYPT, false);
+        return decrypter;
+    }
+
+    /**
+     * Creates or returns the pooled verifier for the given header and key. Verifiers are pooled only for
+     * headers carrying a key ID and for RSA public keys; other combinations are delegated to the default factory.
+     *
+     * @param header the JWS header
+     * @param key    the verification key
+     * @return the verifier
+     * @throws JOSEException if the verifier cannot be created
+     */
+    @Override
+    public JWSVerifier createJWSVerifier(JWSHeader header, java.security.Key key) throws JOSEException {
+        String kid = header.getKeyID();
+        if (!StringUtils.hasText(kid) || !(key instanceof RSAPublicKey rsaPublicKey)) {
+            return defaultVerifierFactory.createJWSVerifier(header, key);
+        }
+        Entry entry = entries.get(kid);
+        Verification verification = entry != null ? entry.verification : null;
+        if (verification != null && rsaPublicKey.equals(verification.key())) {
+            record(Operation.VERIFY, true);
+            return verification.verifier();
+        }
+        JWSVerifier verifier = defaultVerifierFactory.createJWSVerifier(header, key);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(kid, k -> new Entry(null));
+        }
+        entry.verification = new Verification(rsaPublicKey, verifier);
+        record(Operation.VERIFY, false);
+        return verifier;
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return defaultVerifierFactory.supportedJWSAlgorithms();
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return defaultVerifierFactory.getJCAContext();
+    }
+
+    /**
+     * Discards the crypto primitives of the given key ID.
+     *
+     * @param kid the key ID
+     */
+    public void invalidate(String kid) {
+        if (kid != null) {
+            entries.remove(kid);
+        }
+    }
+
+    /**
+     * Discards the crypto primitives of a key once its change has been committed.
+     *
+     * @param event the key change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeyChanged(KeyChangedEvent event) {
+        this.logger.debug("Discarding crypto primitives of key '%s'".formatted(event.kid()));
+        invalidate(event.kid());
+    }
+
+    private Entry entry(JWK jwk) {
+        String kid = jwk.getKeyID();
+        if (kid == null) {
+            return new Entry(jwk);
+        }
+        Entry entry = entries.get(kid);
+        if (entry != null && entry.matches(jwk)) {
+            return entry;
+        }
+        Entry rebuilt = new Entry(jwk);
+        entries.put(kid, rebuilt);
+        return rebuilt;
+    }
+
+    private void record(Operation operation, boolean hit) {
+        (hit ? hitCounters : rebuildCounters).get(operation).increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Operation operation, String result) {
+        return Counter.builder(METRIC_NAME)
+            .description("Lookups of pooled JOSE crypto primitives")
+            .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private enum Operation {
+        SIGN, VERIFY, ENCRYPT, DECRYPT
+    }
+
+    /**
+     * Crypto primitives built from a single JWK. Primitives are created lazily; concurrent creation of the
+     * same primitive is harmless since they are stateless with respect to the tokens they process.
+     */
+    private static final class Entry {
+
+        private final JWK jwk;
+        private volatile RSAPublicKey publicKey;
+        private volatile JWSSigner signer;
+        private volatile JWEEncrypter encrypter;
+        private volatile JWEDecrypter decrypter;
+        private volatile Verification verification;
+
+        private Entry(JWK jwk) {
+            this.jwk = jwk;
+        }
+
+        private boolean matches(JWK other) {
+            return jwk == other || (jwk != null && jwk.equals(other));
+        }
+
+        private RSAPublicKey publicKey() throws JOSEException {
+            RSAPublicKey key = this.publicKey;
+            if (key == null) {
+                key = jwk.toRSAKey().toRSAPublicKey();
+                this.publicKey = key;
+            }
+            return key;
+        }
+    }
+
+    /**
+     * A verifier together with the key it verifies with, published as a whole so that a lookup never pairs the
+     * verifier of one key with another key.
+     *
+     * @param key      the verification key
+     * @param verifier the verifier
+     */
+    private record Verification(RSAPublicKey key, JWSVerifier verifier) {
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PRIVATE_KEY_FOOTER;
+import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PRIVATE_KEY_HEADER;
+import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PUBLIC_KEY_FOOTER;
+import static io.github.susimsek.springnextjssamples.security.EncryptionConstants.PUBLIC_KEY_HEADER;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HexFormat;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.security.converter.RsaKeyConverters;
+
+/**
+ * {@code KeyMaterialCache} is a process-wide cache of decoded key material, so that mapping the same
+ * {@code security_key} row to a {@link Key} does not repeat PEM decoding, ASN.1 parsing and RSA key
+ * factory work on every lookup.
+ *
+ * <p>Entries are keyed by the key ID plus a SHA-256 hash of the encoded key content, key use and algorithm,
+ * so a changed row never resolves to stale material. The cache is bounded, and entries of a key ID are
+ * discarded through {@link #invalidate(String)} when the row changes.</p>
+ *
+ * @see Key.Builder
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeyMaterialCache {
+
+    private static final long MAXIMUM_SIZE = 256L;
+    private static final String CONTENT_DIGEST_ALGORITHM = "SHA-256";
+    private static final char CONTENT_SEPARATOR = '\n';
+
+    private static final Cache<CacheKey, KeyMaterial> CACHE = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .build();
+
+    /**
+     * Returns the decoded key material for the given encoded keys, decoding and caching it on first use.
+     *
+     * @param kid        the key ID
+     * @param publicKey  the Base64 encoded X.509 public key, without PEM header and footer
+     * @param privateKey the Base64 encoded PKCS#8 private key, without PEM header and footer
+     * @param use        the key use
+     * @param algorithm  the key algorithm
+     * @return the decoded key material
+     */
+    static KeyMaterial get(@Nullable String kid,
+                           @Nullable String publicKey,
+                           @Nullable String privateKey,
+                           @Nullable KeyUse use,
+                           @Nullable Algorithm algorithm) {
+        CacheKey cacheKey = new CacheKey(kid, contentHash(publicKey, privateKey, use, algorithm));
+        return CACHE.get(cacheKey, k -> decode(kid, publicKey, privateKey, use, algorithm));
+    }
+
+    /**
+     * Discards all cached key material of the given key ID.
+     *
+     * @param kid the key ID
+     */
+    public static void invalidate(String kid) {
+        CACHE.asMap().keySet().removeIf(cacheKey -> cacheKey.kid() != null && cacheKey.kid().equals(kid));
+    }
+
+    /**
+     * Discards all cached key material.
+     */
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+
+    private static KeyMaterial decode(String kid, String publicKey, String privateKey,
+                                      KeyUse use, Algorithm algorithm) {
+        PublicKey decodedPublicKey = publicKey != null ? decodePublicKey(publicKey) : null;
+        PrivateKey decodedPrivateKey = privateKey != null ? decodePrivateKey(privateKey) : null;
+        RSAKey rsaKey = null;
+        if (decodedPublicKey instanceof RSAPublicKey rsaPublicKey) {
+            rsaKey = new RSAKey.Builder(rsaPublicKey)
+                .privateKey(decodedPrivateKey)
+                .keyUse(use)
+                .algorithm(algorithm)
+                .keyID(kid)
+                .build();
+        }
+        return new KeyMaterial(decodedPublicKey, decodedPrivateKey, rsaKey);
+    }
+
+    private static PublicKey decodePublicKey(String publicKey) {
+        String formattedPublicKey = PUBLIC_KEY_HEADER + publicKey + PUBLIC_KEY_FOOTER;
+        return RsaKeyConverters.x509().convert(new ByteArrayInputStream(
+            formattedPublicKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static PrivateKey decodePrivateKey(String privateKey) {
+        String formattedPrivateKey = PRIVATE_KEY_HEADER + privateKey + PRIVATE_KEY_FOOTER;
+        return RsaKeyConverters.pkcs8().convert(new ByteArrayInputStream(
+            formattedPrivateKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String contentHash(String publicKey, String privateKey, KeyUse use, Algorithm algorithm) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(CONTENT_DIGEST_ALGORITHM);
+            update(messageDigest, publicKey);
+            update(messageDigest, privateKey);
+            update(messageDigest, use != null ? use.identifier() : null);
+            update(messageDigest, algorithm != null ? algorithm.getName() : null);
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to compute key content hash", e);
+        }
+    }
+
+    private static void update(MessageDigest messageDigest, String value) {
+        if (value != null) {
+            messageDigest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        messageDigest.update((byte) CONTENT_SEPARATOR);
+    }
+
+    /**
+     * Cache key made of the key ID and the content hash.
+     *
+     * @param kid         the key ID
+     * @param contentHash the hash of the encoded key content, key use and algorithm
+     */
+    private record CacheKey(String kid, String contentHash) {
+    }
+
+    /**
+     * Decoded key material of a single key.
+     *
+     * @param publicKey  the decoded public key, or {@code null}
+     * @param privateKey the decoded private key, or {@code null}
+     * @param rsaKey     the RSA JWK built from the decoded keys, or {@code null} if the key is not an RSA key
+     */
+    record KeyMaterial(PublicKey publicKey, PrivateKey privateKey, RSAKey rsaKey) {
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+/**
+ * Serializes the publication of new signing keys across application instances, so that only one instance rotates
+ * the signing key when the rotation is due on several of them at once.
+ *
+ * @see KeyRotationService
+ * @see PostgresKeyRotationLock
+ */
+@FunctionalInterface
+public interface KeyRotationLock {
+
+    /**
+     * A lock for a single instance, which always runs the task.
+     */
+    KeyRotationLock LOCAL = task -> {
+        task.run();
+        return true;
+    };
+
+    /**
+     * Runs the given task if the lock can be acquired without waiting, and releases the lock afterwards.
+     *
+     * @param task the task
+     * @return {@code true} if the task was run, {@code false} if another instance holds the lock
+     */
+    boolean runExclusively(Runnable task);
+}
@@ -0,0 +1,260 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.KeyUse;
+import io.github.susimsek.springnextjssamples.security.SecurityProperties;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * {@code KeyRotationService} rotates the RS256 keys used to sign tokens, with overlapping validity windows.
+ *
+ * <p>Signing keys carry an activation time. A new key is generated ahead of time on the given {@link Executor},
+ * off the request path, and saved as active with an activation time {@code publishAhead} in the future: from then on
+ * it is part of the JWK set and can verify tokens, but is not yet used for signing. {@link #currentSigningKid()}
+ * returns the most recently activated key, so signing switches to the new key at its activation time without any
+ * further coordination. The previous key is deactivated once the access token time-to-live has elapsed since its
+ * successor was activated, that is once every token it signed has expired.</p>
+ *
+ * <p>Keys without an activation time are treated as activated at the epoch; they are used for signing until a newer
+ * key becomes active. Rotation only runs when {@code security.key-rotation.enabled} is set.</p>
+ *
+ * <p>When several instances share the key store, the new key is published under the given {@link KeyRotationLock}.
+ * Its ID is derived from the ID of the key it replaces, so an instance that acquires the lock after another one has
+ * published the successor finds it in the store and does not publish a second one.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ *     KeyRotationService keyRotationService = new KeyRotationService(keyService, securityProperties, executor);
+ *     String kid = keyRotationService.currentSigningKid();
+ * </pre>
+ * </p>
+ *
+ * @see SecurityProperties.KeyRotation
+ * @see KeyChangedEvent
+ */
+public class KeyRotationService {
+
+    private static final String KEY_TYPE = "RSA";
+    private static final int KEY_SIZE = 2048;
+    private static final JWSAlgorithm SIGNING_ALGORITHM = JWSAlgorithm.RS256;
+
+    private final Log logger = LogFactory.getLog(this.getClass());
+    private final KeyService keyService;
+    private final SecurityProperties securityProperties;
+    private final Executor executor;
+    private final KeyRotationLock rotationLock;
+    private final Clock clock;
+    private final AtomicBoolean generating = new AtomicBoolean();
+
+    /**
+     * The signing keys ordered by activation time, {@code null} until first loaded.
+     */
+    private volatile List<Key> signingKeys;
+
+    /**
+     * Creates a rotation service for a single instance using the system clock.
+     *
+     * @param keyService         the key store
+     * @param securityProperties the security properties
+     * @param executor           the executor on which new keys are generated
+     */
+    public KeyRotationService(KeyService keyService, SecurityProperties securityProperties, Executor executor) {
+        this(keyService, securityProperties, executor, KeyRotationLock.LOCAL);
+    }
+
+    /**
+     * Creates a rotation service using the system clock.
+     *
+     * @param keyService         the key store
+     * @param securityProperties the security properties
+     * @param executor           the executor on which new keys are generated
+     * @param rotationLock       the lock under which new keys are published
+     */
+    public KeyRotationService(KeyService keyService, SecurityProperties securityProperties,
+                              Executor executor, KeyRotationLock rotationLock) {
+        this(keyService, securityProperties, executor, rotationLock, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a rotation service using the given clock.
+     *
+     * @param keyService         the key store
+     * @param securityProperties the security properties
+     * @param executor           the executor on which new keys are generated
+     * @param rotationLock       the lock under which new keys are published
+     * @param clock              the clock
+     */
+    public KeyRotationService(KeyService keyService, SecurityProperties securityProperties,
+                              Executor executor, KeyRotationLock rotationLock, Clock clock) {
+        this.keyService = keyService;
+        this.securityProperties = securityProperties;
+        this.executor = executor;
+        this.rotationLock = rotationLock;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the key ID of the key to sign new tokens with: the most recently activated signing key.
+     *
+     * @return the key ID, or {@code null} if there is no activated signing key
+     */
+    @Nullable
+    public String currentSigningKid() {
+        Key key = currentSigningKey(signingKeys(), clock.instant());
+        return key != null ? key.getKid() : null;
+    }
+
+    /**
+     * Reloads the signing keys from the {@link KeyService}.
+     *
+     * @return the signing keys ordered by activation time
+     */
+    public synchronized List<Key> refresh() {
+        List<Key> keys = keyService.findAll().stream()
+            .filter(key -> SIGNING_ALGORITHM.equals(key.getAlgorithm()))
+            .sorted(Comparator.comparing(KeyRotationService::activation))
+            .toList();
+        this.signingKeys = keys;
+        return keys;
+    }
+
+    /**
+     * Reloads the signing keys once a key change has been committed.
+     *
+     * @param event the key change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeyChanged(KeyChangedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Retires superseded signing keys and, when the current key is due, starts generating its successor.
+     */
+    @Scheduled(
+        initialDelayString = "${security.key-rotation.check-interval:PT5M}",
+        fixedDelayString = "${security.key-rotation.check-interval:PT5M}")
+    public void rotate() {
+        SecurityProperties.KeyRotation rotation = securityProperties.getKeyRotation();
+        if (!rotation.isEnabled()) {
+            return;
+        }
+        Instant now = clock.instant();
+        List<Key> keys = refresh();
+        retireSuperseded(keys, now);
+
+        Key current = currentSigningKey(keys, now);
+        if (!keys.isEmpty() && current != keys.getLast()) {
+            // the successor is already published and waits for its activation
+            return;
+        }
+        Duration renewAfter = rotation.getRotationInterval().minus(rotation.getPublishAhead());
+        if (current != null && activation(current).plus(renewAfter).isAfter(now)) {
+            return;
+        }
+        if (!generating.compareAndSet(false, true)) {
+            return;
+        }
+        Instant activatedAt = now.plus(rotation.getPublishAhead());
+        CompletableFuture.runAsync(() -> generate(current, activatedAt), executor)
+            .whenComplete((result, ex) -> {
+                generating.set(false);
+                if (ex != null) {
+                    this.logger.error("Failed to generate the next signing key", ex);
+                }
+            });
+    }
+
+    private List<Key> signingKeys() {
+        List<Key> keys = this.signingKeys;
+        return keys != null ? keys : refresh();
+    }
+
+    private void retireSuperseded(List<Key> keys, Instant now) {
+        Duration tokenTimeToLive = securityProperties.getToken().getAccessTokenTimeToLive();
+        for (int i = 0; i < keys.size() - 1; i++) {
+            Instant supersededAt = activation(keys.get(i + 1));
+            if (!supersededAt.plus(tokenTimeToLive).isAfter(now)) {
+                String kid = keys.get(i).getKid();
+                this.logger.info("Retiring signing key '%s' superseded at %s".formatted(kid, supersededAt));
+                keyService.deactivate(kid);
+            }
+        }
+    }
+
+    private void generate(@Nullable Key predecessor, Instant activatedAt) {
+        KeyPair keyPair = generateKeyPair();
+        String kid = predecessor != null ? successorKid(predecessor) : UUID.randomUUID().toString();
+        if (!rotationLock.runExclusively(() -> publish(kid, keyPair, activatedAt))) {
+            this.logger.info("Skipped publishing signing key '%s', another instance is rotating".formatted(kid));
+        }
+    }
+
+    private void publish(String kid, KeyPair keyPair, Instant activatedAt) {
+        if (keyService.findById(kid) != null) {
+            this.logger.info("Signing key '%s' has already been published by another instance".formatted(kid));
+            return;
+        }
+        Base64.Encoder encoder = Base64.getEncoder();
+        keyService.save(Key.builder()
+            .id(kid)
+            .type(KEY_TYPE)
+            .algorithm(SIGNING_ALGORITHM.getName())
+            .publicKey(encoder.encodeToString(keyPair.getPublic().getEncoded()))
+            .privateKey(encoder.encodeToString(keyPair.getPrivate().getEncoded()))
+            .active(true)
+            .kid(kid)
+            .use(KeyUse.SIGNATURE.identifier())
+            .activatedAt(activatedAt)
+            .build());
+        this.logger.info("Published signing key '%s', used for signing from %s".formatted(kid, activatedAt));
+    }
+
+    private static String successorKid(Key predecessor) {
+        return UUID.nameUUIDFromBytes(("successor:" + predecessor.getKid()).getBytes(StandardCharsets.UTF_8))
+            .toString();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(KEY_TYPE);
+            keyPairGenerator.initialize(KEY_SIZE);
+            return keyPairGenerator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to generate an RSA key pair", e);
+        }
+    }
+
+    @Nullable
+    private static Key currentSigningKey(List<Key> keys, Instant now) {
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            Key key = keys.get(i);
+            if (!activation(key).isAfter(now)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static Instant activation(Key key) {
+        return key.getActivatedAt() != null ? key.getActivatedAt() : Instant.EPOCH;
+    }
+}
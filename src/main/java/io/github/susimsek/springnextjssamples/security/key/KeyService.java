@@ -44,6 +44,14 @@ public interface KeyService {
      */
     void remove(Key key);
 
+    /**
+     * Marks the {@link Key} with the given key ID (kid) as inactive, so that it is no longer used
+     * for signing or verification. Does nothing if no such key exists.
+     *
+     * @param kid the key ID.
+     */
+    void deactivate(String kid);
+
     /**
      * Finds a {@link Key} by its unique identifier.
      *
@@ -0,0 +1,47 @@
+package io.github.susimsek.springnextjssamples.security.key;
+
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A {@link KeyRotationLock} on a PostgreSQL transaction-level advisory lock, using the application datasource.
+ *
+ * <p>The task runs in a transaction that first calls {@code pg_try_advisory_xact_lock}; the lock is released when the
+ * transaction ends, so keys saved by the task are committed before another instance can acquire it.</p>
+ */
+public class PostgresKeyRotationLock implements KeyRotationLock {
+
+    /**
+     * The advisory lock key, shared by all instances.
+     */
+    private static final long LOCK_KEY = 0x6b65792d726f74L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates a lock on the given datasource.
+     *
+     * @param dataSource         the datasource
+     * @param transactionManager the transaction manager of the datasource
+     */
+    public PostgresKeyRotationLock(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public boolean runExclusively(Runnable task) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Boolean acquired = jdbcTemplate.queryForObject(
+                "select pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+            if (!Boolean.TRUE.equals(acquired)) {
+                return false;
+            }
+            task.run();
+            return true;
+        }));
+    }
+}
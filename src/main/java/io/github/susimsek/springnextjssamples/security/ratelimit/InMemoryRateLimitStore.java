@@ -0,0 +1,37 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+
+/**
+ * {@link RateLimitStore} keeping one {@link TokenBucket} per key in the memory of this application instance.
+ *
+ * <p>Buckets are evicted once they have not been used for the given idle time, which should be at least the
+ * refresh period of the buckets so that only full buckets are evicted, and their number is bounded so that many
+ * distinct clients cannot exhaust the heap.</p>
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    /**
+     * Creates an in-memory store.
+     *
+     * @param maxBuckets the maximum number of buckets kept in memory
+     * @param idleTime   the time after which an unused bucket is evicted
+     */
+    public InMemoryRateLimitStore(long maxBuckets, Duration idleTime) {
+        this.buckets = Caffeine.newBuilder()
+            .expireAfterAccess(idleTime)
+            .maximumSize(maxBuckets)
+            .build();
+    }
+
+    @Override
+    public RateLimitProbe acquire(String key, long permits, RateLimitBandwidth bandwidth) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(now));
+        return bucket.tryConsume(now, permits, bandwidth);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link RateLimitStore} sharing token buckets between application instances through the {@code rate_limit_bucket}
+ * table.
+ *
+ * <p>Each row holds the theoretical arrival time of a bucket in epoch nanoseconds. A request locks the row, applies
+ * the permits and writes the new arrival time back in its own transaction. Rows of full buckets carry no state and
+ * are deleted periodically. Instances should use synchronized clocks, as bucket times are taken from the local
+ * clock.</p>
+ *
+ * <p>A round trip per request is expensive; wrap this store in a {@link LeasingRateLimitStore} to acquire permits
+ * in batches.</p>
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String SELECT_SQL =
+        "SELECT theoretical_arrival_time FROM rate_limit_bucket WHERE bucket_key = ? FOR UPDATE";
+    private static final String INSERT_SQL =
+        "INSERT INTO rate_limit_bucket (bucket_key, theoretical_arrival_time) VALUES (?, ?)";
+    private static final String UPDATE_SQL =
+        "UPDATE rate_limit_bucket SET theoretical_arrival_time = ? WHERE bucket_key = ?";
+    private static final String DELETE_FULL_SQL =
+        "DELETE FROM rate_limit_bucket WHERE theoretical_arrival_time <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    /**
+     * Creates a JDBC store using the system clock.
+     *
+     * @param jdbcTemplate       the JDBC template
+     * @param transactionManager the transaction manager of the data source
+     */
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this(jdbcTemplate, transactionManager, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a JDBC store.
+     *
+     * @param jdbcTemplate       the JDBC template
+     * @param transactionManager the transaction manager of the data source
+     * @param clock              the clock of the bucket times
+     */
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitProbe acquire(String key, long permits, RateLimitBandwidth bandwidth) {
+        try {
+            return transactionTemplate.execute(status -> doAcquire(key, permits, bandwidth));
+        } catch (DuplicateKeyException e) {
+            // another instance created the bucket concurrently, the row can now be locked
+            return transactionTemplate.execute(status -> doAcquire(key, permits, bandwidth));
+        }
+    }
+
+    /**
+     * Deletes the rows of full buckets, which are equivalent to missing rows.
+     */
+    @Scheduled(
+        initialDelayString = "${rate-limit.jdbc.cleanup-interval:PT5M}",
+        fixedDelayString = "${rate-limit.jdbc.cleanup-interval:PT5M}")
+    public void deleteFullBuckets() {
+        jdbcTemplate.update(DELETE_FULL_SQL, epochNanos());
+    }
+
+    private RateLimitProbe doAcquire(String key, long permits, RateLimitBandwidth bandwidth) {
+        long now = epochNanos();
+        List<Long> rows = jdbcTemplate.queryForList(SELECT_SQL, Long.class, key);
+        if (rows.isEmpty()) {
+            RateLimitProbe probe = bandwidth.apply(now, now, permits);
+            jdbcTemplate.update(INSERT_SQL, key, bandwidth.next(now, now, probe.granted()));
+            return probe;
+        }
+        long tat = rows.getFirst();
+        RateLimitProbe probe = bandwidth.apply(tat, now, permits);
+        if (probe.consumed()) {
+            jdbcTemplate.update(UPDATE_SQL, bandwidth.next(tat, now, probe.granted()), key);
+        }
+        return probe;
+    }
+
+    private long epochNanos() {
+        Instant instant = clock.instant();
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+}
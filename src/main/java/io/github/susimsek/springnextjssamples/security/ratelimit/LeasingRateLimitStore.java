@@ -0,0 +1,146 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RateLimitStore} decorator that leases permits from a shared store in batches and hands them out locally,
+ * keeping the shared store off the per-request path.
+ *
+ * <p>The size of a lease adapts to the request rate observed for its key: it is the number of permits the key is
+ * expected to use over {@code leaseDuration}, so each instance consults the shared store about once per lease
+ * duration and key, whatever the traffic. A lease is capped at {@code maxLeaseFraction} of the bucket capacity, so
+ * that one instance cannot hold the whole quota. Permits not used within the lease duration are dropped, which
+ * never lets clients exceed their quota but may refuse a few requests at the quota boundary. Refusals from the
+ * shared store are remembered until a permit can be granted again.</p>
+ */
+public class LeasingRateLimitStore implements RateLimitStore {
+
+    private static final double RATE_SMOOTHING = 0.5;
+
+    private final RateLimitStore delegate;
+    private final long leaseDuration;
+    private final double maxLeaseFraction;
+    private final Ticker ticker;
+    private final Cache<String, Lease> leases;
+
+    /**
+     * Creates a leasing store using the system ticker.
+     *
+     * @param delegate         the shared store
+     * @param leaseDuration    the time over which a lease should be used, and after which unused permits are dropped
+     * @param maxLeaseFraction the maximum fraction of the bucket capacity leased at once
+     * @param maxLeases        the maximum number of leases kept in memory
+     */
+    public LeasingRateLimitStore(RateLimitStore delegate, Duration leaseDuration,
+                                 double maxLeaseFraction, long maxLeases) {
+        this(delegate, leaseDuration, maxLeaseFraction, maxLeases, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates a leasing store.
+     *
+     * @param delegate         the shared store
+     * @param leaseDuration    the time over which a lease should be used, and after which unused permits are dropped
+     * @param maxLeaseFraction the maximum fraction of the bucket capacity leased at once
+     * @param maxLeases        the maximum number of leases kept in memory
+     * @param ticker           the source of the current time in nanoseconds
+     */
+    public LeasingRateLimitStore(RateLimitStore delegate, Duration leaseDuration,
+                                 double maxLeaseFraction, long maxLeases, Ticker ticker) {
+        Assert.isTrue(!leaseDuration.isNegative() && !leaseDuration.isZero(), "leaseDuration must be positive");
+        Assert.isTrue(maxLeaseFraction > 0 && maxLeaseFraction <= 1, "maxLeaseFraction must be in (0, 1]");
+        this.delegate = delegate;
+        this.leaseDuration = leaseDuration.toNanos();
+        this.maxLeaseFraction = maxLeaseFraction;
+        this.ticker = ticker;
+        this.leases = Caffeine.newBuilder()
+            .expireAfterAccess(leaseDuration.multipliedBy(10))
+            .maximumSize(maxLeases)
+            .ticker(ticker)
+            .build();
+    }
+
+    @Override
+    public RateLimitProbe acquire(String key, long permits, RateLimitBandwidth bandwidth) {
+        if (permits != 1) {
+            return delegate.acquire(key, permits, bandwidth);
+        }
+        return leases.get(key, k -> new Lease()).acquire(key, bandwidth);
+    }
+
+    /**
+     * Permits leased for a single key. The fast path is a compare-and-set on the local permit count; refills are
+     * serialized per key.
+     */
+    private final class Lease {
+
+        private final AtomicLong available = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private volatile long expiresAt = ticker.read();
+        private volatile RateLimitProbe lastProbe = RateLimitProbe.rejected(0L, 0L);
+        private long lastRefill;
+        private double rate;
+
+        private RateLimitProbe acquire(String key, RateLimitBandwidth bandwidth) {
+            requests.incrementAndGet();
+            RateLimitProbe probe = tryLocal(ticker.read());
+            return probe != null ? probe : refill(key, bandwidth);
+        }
+
+        private RateLimitProbe tryLocal(long now) {
+            if (now - expiresAt >= 0) {
+                return null;
+            }
+            RateLimitProbe probe = lastProbe;
+            if (!probe.consumed()) {
+                // refused by the shared store until expiresAt
+                return RateLimitProbe.rejected(probe.resetTime(), expiresAt - now);
+            }
+            long permits;
+            do {
+                permits = available.get();
+                if (permits <= 0) {
+                    return null;
+                }
+            } while (!available.compareAndSet(permits, permits - 1));
+            return RateLimitProbe.consumed(1, probe.remaining() + permits - 1, probe.resetTime());
+        }
+
+        private synchronized RateLimitProbe refill(String key, RateLimitBandwidth bandwidth) {
+            long now = ticker.read();
+            RateLimitProbe local = tryLocal(now);
+            if (local != null) {
+                return local;
+            }
+            RateLimitProbe probe = delegate.acquire(key, leaseSize(now, bandwidth), bandwidth);
+            if (probe.consumed()) {
+                available.set(probe.granted() - 1);
+                lastProbe = probe;
+                expiresAt = now + leaseDuration;
+                return RateLimitProbe.consumed(1, probe.remaining() + probe.granted() - 1, probe.resetTime());
+            }
+            available.set(0);
+            lastProbe = probe;
+            expiresAt = now + Math.max(probe.waitTime(), 1);
+            return probe;
+        }
+
+        private long leaseSize(long now, RateLimitBandwidth bandwidth) {
+            long count = requests.getAndSet(0);
+            long elapsed = now - lastRefill;
+            if (lastRefill != 0 && elapsed > 0) {
+                double observed = (double) count / elapsed;
+                rate = rate == 0 ? observed : rate + RATE_SMOOTHING * (observed - rate);
+            }
+            lastRefill = now;
+            long maxLease = Math.max(1, (long) (bandwidth.limitForPeriod() * maxLeaseFraction));
+            long size = (long) Math.ceil(rate * leaseDuration);
+            return Math.clamp(size, 1, maxLease);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import java.time.Duration;
+import org.springframework.util.Assert;
+
+/**
+ * The capacity and refill rate of the buckets of a {@link RateLimiter}: {@code limitForPeriod} permits refilled
+ * continuously over {@code limitRefreshPeriod}.
+ *
+ * @param limitForPeriod   the number of permits per refresh period
+ * @param emissionInterval the time in nanoseconds to refill one permit
+ * @param burst            the time in nanoseconds to refill the whole bucket
+ */
+public record RateLimitBandwidth(int limitForPeriod, long emissionInterval, long burst) {
+
+    /**
+     * Creates the bandwidth of {@code limitForPeriod} permits per {@code limitRefreshPeriod}.
+     *
+     * @param limitForPeriod     the number of permits per refresh period
+     * @param limitRefreshPeriod the period over which the permits are refilled
+     * @return the bandwidth
+     */
+    public static RateLimitBandwidth of(int limitForPeriod, Duration limitRefreshPeriod) {
+        Assert.isTrue(limitForPeriod > 0, "limitForPeriod must be greater than 0");
+        Assert.isTrue(limitRefreshPeriod.toNanos() >= limitForPeriod,
+            "limitRefreshPeriod must be at least one nanosecond per permit");
+        long emissionInterval = limitRefreshPeriod.toNanos() / limitForPeriod;
+        return new RateLimitBandwidth(limitForPeriod, emissionInterval, emissionInterval * limitForPeriod);
+    }
+
+    /**
+     * Applies up to {@code permits} permits to a bucket whose theoretical arrival time is {@code tat}, following the
+     * generic cell rate algorithm. When permits have been granted, callers store the theoretical arrival time
+     * returned by {@link #next(long, long, long)}.
+     *
+     * @param tat     the current theoretical arrival time of the bucket
+     * @param now     the current time, on the same clock as {@code tat}
+     * @param permits the number of permits requested
+     * @return the outcome of the request
+     */
+    public RateLimitProbe apply(long tat, long now, long permits) {
+        long base = Math.max(tat, now);
+        long available = (burst - (base - now)) / emissionInterval;
+        if (available <= 0) {
+            long ahead = base + emissionInterval - now;
+            return RateLimitProbe.rejected(Math.max(tat - now, 0), ahead - burst);
+        }
+        long granted = Math.min(available, permits);
+        long ahead = base + granted * emissionInterval - now;
+        return RateLimitProbe.consumed(granted, available - granted, ahead);
+    }
+
+    /**
+     * Returns the theoretical arrival time of a bucket after {@code granted} permits have been granted.
+     *
+     * @param tat     the theoretical arrival time before the grant
+     * @param now     the current time, on the same clock as {@code tat}
+     * @param granted the number of permits granted
+     * @return the new theoretical arrival time
+     */
+    public long next(long tat, long now, long granted) {
+        return Math.max(tat, now) + granted * emissionInterval;
+    }
+}
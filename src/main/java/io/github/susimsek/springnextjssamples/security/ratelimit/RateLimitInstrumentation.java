@@ -0,0 +1,80 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * {@code RateLimitInstrumentation} applies a {@link RateLimiter} to GraphQL operations.
+ *
+ * <p>One permit is acquired per operation when its execution starts. When the permit is refused, the root fields
+ * of the operation fail with the {@link io.github.susimsek.springnextjssamples.exception.ratelimit.RateLimitExceededException}
+ * built by the rate limiter, which the GraphQL exception handler renders as a {@code THROTTLED} error; nested fields
+ * are never fetched. Without a rate limiter, operations are not limited.</p>
+ *
+ * <p>Operations sent over HTTP are keyed on their request. Operations sent over a WebSocket are keyed on the session
+ * exposed by {@link WebSocketSessionInterceptor}. Operations bound to neither, such as those executed in-process, are
+ * not limited rather than sharing a single bucket.</p>
+ *
+ * @see RateLimiter
+ * @see WebSocketSessionInterceptor
+ */
+@RequiredArgsConstructor
+public class RateLimitInstrumentation extends SimplePerformantInstrumentation {
+
+    @Nullable
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        if (rateLimiter == null) {
+            return null;
+        }
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            return new State(rateLimiter.tryAcquire(request));
+        }
+        WebSocketSessionInfo sessionInfo = parameters.getExecutionInput().getGraphQLContext()
+            .get(WebSocketSessionInfo.class);
+        if (sessionInfo != null) {
+            return new State(rateLimiter.tryAcquire(sessionInfo));
+        }
+        return null;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (!(state instanceof State rateLimitState)
+            || rateLimitState.probe().consumed()
+            || parameters.getExecutionStepInfo().getPath().getLevel() != 1) {
+            return dataFetcher;
+        }
+        RateLimitProbe probe = rateLimitState.probe();
+        return environment -> {
+            throw rateLimiter.exceeded(probe);
+        };
+    }
+
+    @Nullable
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            return servletRequestAttributes.getRequest();
+        }
+        return null;
+    }
+
+    private record State(RateLimitProbe probe) implements InstrumentationState {
+    }
+}
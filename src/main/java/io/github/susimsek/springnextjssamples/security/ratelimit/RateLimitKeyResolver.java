@@ -0,0 +1,90 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import io.github.susimsek.springnextjssamples.security.SecurityUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategies to derive the bucket key of a request, that is the client a rate limit applies to.
+ *
+ * <p>GraphQL operations sent over a WebSocket have no HTTP request of their own; they are keyed on the session they
+ * are sent on, using the remote address of the session or, when it is not known, the session ID.</p>
+ */
+public enum RateLimitKeyResolver {
+
+    /**
+     * One bucket per authenticated user; anonymous requests fall back to one bucket per IP address.
+     */
+    PRINCIPAL {
+        @Override
+        public String resolve(@Nullable HttpServletRequest request) {
+            return currentUser().orElseGet(() -> IP.resolve(request));
+        }
+
+        @Override
+        public String resolve(WebSocketSessionInfo sessionInfo) {
+            return currentUser().orElseGet(() -> IP.resolve(sessionInfo));
+        }
+    },
+
+    /**
+     * One bucket per client IP address.
+     */
+    IP {
+        @Override
+        public String resolve(@Nullable HttpServletRequest request) {
+            return request != null ? "ip:" + request.getRemoteAddr() : UNKNOWN;
+        }
+
+        @Override
+        public String resolve(WebSocketSessionInfo sessionInfo) {
+            InetSocketAddress remoteAddress = sessionInfo.getRemoteAddress();
+            if (remoteAddress == null) {
+                return "session:" + sessionInfo.getId();
+            }
+            return "ip:" + (remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString());
+        }
+    },
+
+    /**
+     * One bucket per HTTP method and path, shared by all clients.
+     */
+    ROUTE {
+        @Override
+        public String resolve(@Nullable HttpServletRequest request) {
+            return request != null ? "route:" + request.getMethod() + " " + request.getRequestURI() : UNKNOWN;
+        }
+
+        @Override
+        public String resolve(WebSocketSessionInfo sessionInfo) {
+            return "route:WS " + sessionInfo.getUri().getPath();
+        }
+    };
+
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * Resolves the bucket key of the given request.
+     *
+     * @param request the current request, or {@code null} outside of an HTTP request
+     * @return the bucket key
+     */
+    public abstract String resolve(@Nullable HttpServletRequest request);
+
+    /**
+     * Resolves the bucket key of a request sent over the given WebSocket session.
+     *
+     * @param sessionInfo the WebSocket session
+     * @return the bucket key
+     */
+    public abstract String resolve(WebSocketSessionInfo sessionInfo);
+
+    private static Optional<String> currentUser() {
+        return SecurityUtils.getCurrentUserLogin().map(login -> "user:" + login);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a permit request to a {@link RateLimiter} or a {@link RateLimitStore}.
+ *
+ * @param granted   the number of permits granted, {@code 0} if the request has been refused
+ * @param remaining the number of permits left in the bucket
+ * @param resetTime the time in nanoseconds until the bucket is full again
+ * @param waitTime  the time in nanoseconds until a permit can be granted, {@code 0} if permits have been granted
+ */
+public record RateLimitProbe(long granted, long remaining, long resetTime, long waitTime) {
+
+    static RateLimitProbe consumed(long granted, long remaining, long resetTime) {
+        return new RateLimitProbe(granted, remaining, resetTime, 0L);
+    }
+
+    static RateLimitProbe rejected(long resetTime, long waitTime) {
+        return new RateLimitProbe(0L, 0L, resetTime, waitTime);
+    }
+
+    /**
+     * Indicates whether at least one permit has been granted.
+     *
+     * @return {@code true} if permits have been granted
+     */
+    public boolean consumed() {
+        return granted > 0;
+    }
+
+    /**
+     * Returns the time until the bucket is full again, rounded up to milliseconds.
+     *
+     * @return the reset time in milliseconds
+     */
+    public long resetTimeMillis() {
+        return toMillis(resetTime);
+    }
+
+    /**
+     * Returns the time until a permit can be granted, rounded up to milliseconds.
+     *
+     * @return the wait time in milliseconds
+     */
+    public long waitTimeMillis() {
+        return toMillis(waitTime);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+/**
+ * {@code RateLimitStore} is the SPI holding the token buckets of the rate limiters.
+ *
+ * <p>Implementations decide where bucket state lives: {@link InMemoryRateLimitStore} keeps it per application
+ * instance, {@link JdbcRateLimitStore} shares it between instances through the database. Requests may ask for
+ * several permits at once, which lets {@link LeasingRateLimitStore} serve most requests from permits leased
+ * locally.</p>
+ *
+ * @see RateLimiter
+ */
+public interface RateLimitStore {
+
+    /**
+     * Acquires up to {@code permits} permits from the bucket with the given key. Fewer permits are granted when
+     * the bucket does not hold enough of them, and none when it is empty.
+     *
+     * @param key       the bucket key
+     * @param permits   the number of permits requested, at least one
+     * @param bandwidth the bandwidth of the bucket
+     * @return the outcome of the request
+     */
+    RateLimitProbe acquire(String key, long permits, RateLimitBandwidth bandwidth);
+}
@@ -0,0 +1,115 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import io.github.susimsek.springnextjssamples.exception.ratelimit.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@code RateLimiter} grants permits from one token bucket per client key, held by a {@link RateLimitStore}.
+ *
+ * <p>Each bucket holds {@code limitForPeriod} permits refilled continuously over {@code limitRefreshPeriod}.
+ * Bucket keys are prefixed with the name of the rate limiter, so that several rate limiters can share a store.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ *     RateLimiter rateLimiter = new RateLimiter("api", RateLimitBandwidth.of(100, Duration.ofSeconds(1)),
+ *         RateLimitKeyResolver.PRINCIPAL, new InMemoryRateLimitStore(100_000, Duration.ofSeconds(1)));
+ *     RateLimitProbe probe = rateLimiter.tryAcquire(request);
+ *     if (!probe.consumed()) {
+ *         throw rateLimiter.exceeded(probe);
+ *     }
+ * </pre>
+ * </p>
+ *
+ * @see RateLimiterRegistry
+ * @see RateLimitStore
+ */
+public class RateLimiter {
+
+    /**
+     * The name of the rate limiter.
+     */
+    @Getter
+    private final String name;
+
+    private final RateLimitBandwidth bandwidth;
+    private final RateLimitKeyResolver keyResolver;
+    private final RateLimitStore store;
+    private final String keyPrefix;
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param name        the name of the rate limiter
+     * @param bandwidth   the capacity and refill rate of the buckets
+     * @param keyResolver the strategy deriving the bucket key of a request
+     * @param store       the store holding the buckets
+     */
+    public RateLimiter(String name, RateLimitBandwidth bandwidth,
+                       RateLimitKeyResolver keyResolver, RateLimitStore store) {
+        Assert.hasText(name, "name cannot be empty");
+        this.name = name;
+        this.bandwidth = bandwidth;
+        this.keyResolver = keyResolver;
+        this.store = store;
+        this.keyPrefix = name + ":";
+    }
+
+    /**
+     * Returns the number of permits per refresh period.
+     *
+     * @return the limit for period
+     */
+    public int getLimitForPeriod() {
+        return bandwidth.limitForPeriod();
+    }
+
+    /**
+     * Tries to acquire a permit for the client of the given request.
+     *
+     * @param request the current request, or {@code null} outside of an HTTP request
+     * @return the outcome of the attempt
+     */
+    public RateLimitProbe tryAcquire(@Nullable HttpServletRequest request) {
+        return tryAcquire(keyResolver.resolve(request));
+    }
+
+    /**
+     * Tries to acquire a permit for the client of the given WebSocket session.
+     *
+     * @param sessionInfo the WebSocket session the request was sent on
+     * @return the outcome of the attempt
+     */
+    public RateLimitProbe tryAcquire(WebSocketSessionInfo sessionInfo) {
+        return tryAcquire(keyResolver.resolve(sessionInfo));
+    }
+
+    /**
+     * Tries to acquire a permit for the given bucket key.
+     *
+     * @param key the bucket key
+     * @return the outcome of the attempt
+     */
+    public RateLimitProbe tryAcquire(String key) {
+        return store.acquire(keyPrefix + key, 1, bandwidth);
+    }
+
+    /**
+     * Creates the exception reporting a refused permit.
+     *
+     * @param probe the refused probe
+     * @return the exception to throw
+     */
+    public RateLimitExceededException exceeded(RateLimitProbe probe) {
+        return new RateLimitExceededException(
+            name,
+            "Rate limit '%s' exceeded".formatted(name),
+            bandwidth.limitForPeriod(),
+            probe.remaining(),
+            probe.resetTimeMillis(),
+            probe.waitTimeMillis());
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code RateLimiterRegistry} holds the configured {@link RateLimiter} instances by name, so that the servlet filter
+ * and the GraphQL instrumentation share the same buckets.
+ *
+ * @see RateLimiter
+ */
+public class RateLimiterRegistry {
+
+    private final Map<String, RateLimiter> rateLimiters = new LinkedHashMap<>();
+
+    /**
+     * Creates a registry holding the given rate limiters.
+     *
+     * @param rateLimiters the rate limiters
+     */
+    public RateLimiterRegistry(Collection<RateLimiter> rateLimiters) {
+        rateLimiters.forEach(rateLimiter -> this.rateLimiters.put(rateLimiter.getName(), rateLimiter));
+    }
+
+    /**
+     * Finds the rate limiter with the given name.
+     *
+     * @param name the name of the rate limiter
+     * @return the rate limiter, or {@code null} if none is configured under this name
+     */
+    @Nullable
+    public RateLimiter find(String name) {
+        return rateLimiters.get(name);
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket held in a single {@link AtomicLong}.
+ *
+ * <p>Instead of a token count and a refill timestamp, the bucket stores the theoretical arrival time (TAT) of the
+ * next request, as in the generic cell rate algorithm. Each permit advances the TAT by one emission interval
+ * ({@code refreshPeriod / limitForPeriod}); a permit is refused while the TAT is more than one refresh period ahead
+ * of now. This is equivalent to a bucket of {@code limitForPeriod} tokens refilled continuously over the refresh
+ * period, and costs one read and one compare-and-set per request.</p>
+ *
+ * @see RateLimitBandwidth#apply(long, long, long)
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param now the current time in nanoseconds
+     */
+    TokenBucket(long now) {
+        this.theoreticalArrivalTime = new AtomicLong(now);
+    }
+
+    /**
+     * Tries to consume up to {@code permits} permits.
+     *
+     * @param now       the current time in nanoseconds
+     * @param permits   the number of permits requested
+     * @param bandwidth the bandwidth of the bucket
+     * @return the outcome of the attempt
+     */
+    RateLimitProbe tryConsume(long now, long permits, RateLimitBandwidth bandwidth) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            RateLimitProbe probe = bandwidth.apply(tat, now, permits);
+            if (!probe.consumed()
+                || theoreticalArrivalTime.compareAndSet(tat, bandwidth.next(tat, now, probe.granted()))) {
+                return probe;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import java.util.Map;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code WebSocketSessionInterceptor} exposes the {@link WebSocketSessionInfo} of GraphQL requests sent over a
+ * WebSocket in their {@link graphql.GraphQLContext}, under the {@code WebSocketSessionInfo} class, so that
+ * {@link RateLimitInstrumentation} can key them on their session.
+ */
+public class WebSocketSessionInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (request instanceof WebSocketGraphQlRequest webSocketRequest) {
+            WebSocketSessionInfo sessionInfo = webSocketRequest.getSessionInfo();
+            request.configureExecutionInput((executionInput, builder) ->
+                builder.graphQLContext(Map.of(WebSocketSessionInfo.class, sessionInfo)).build());
+        }
+        return chain.next(request);
+    }
+}
@@ -11,7 +11,6 @@ import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.Payload;
 import com.nimbusds.jose.crypto.RSAEncrypter;
-import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKMatcher;
 import com.nimbusds.jose.jwk.JWKSelector;
@@ -20,11 +19,11 @@ import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
-import com.nimbusds.jose.produce.JWSSignerFactory;
 import com.nimbusds.jose.util.Base64;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import io.github.susimsek.springnextjssamples.security.key.KeyCryptoRegistry;
 import java.net.URI;
 import java.net.URL;
 import java.time.Instant;
@@ -35,7 +34,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -51,12 +49,13 @@ import org.springframework.util.StringUtils;
  * optional JSON Web Encryption (JWE) using RSA keys.
  *
  * <p>This class leverages the Nimbus JOSE library to create, sign, and optionally encrypt JWTs. It selects appropriate
- * keys from the provided {@link JWKSource} based on header parameters and constructs signed and encrypted JWTs.</p>
+ * keys from the provided {@link JWKSource} based on header parameters and constructs signed and encrypted JWTs.
+ * Signers and encrypters are reused per key ID through the {@link KeyCryptoRegistry}.</p>
  *
  * <p>Example usage:
  * <pre>
  *     JWKSource<SecurityContext> jwkSource = ...;
- *     DomainTokenEncoder encoder = new DomainTokenEncoder(jwkSource);
+ *     DomainTokenEncoder encoder = new DomainTokenEncoder(jwkSource, keyCryptoRegistry);
  *     Jwt jwt = encoder.encode(parameters, rsaKey);
  * </pre>
  * </p>
@@ -67,8 +66,7 @@ public class DomainTokenEncoder implements TokenEncoder {
     private static final String ENCODING_ERROR_MESSAGE_TEMPLATE =
         "An error occurred while attempting to encode the Jwt: %s";
     private final JWKSource<SecurityContext> jwkSource;
-    private static final JWSSignerFactory JWS_SIGNER_FACTORY;
-    private final Map<JWK, JWSSigner> jwsSigners = new ConcurrentHashMap<>();
+    private final KeyCryptoRegistry keyCryptoRegistry;
 
     /**
      * Encodes the JWT with the given parameters, optionally signing and encrypting it.
@@ -88,12 +86,12 @@ public class DomainTokenEncoder implements TokenEncoder {
             headers = JwsHeader.with(SignatureAlgorithm.RS256).build();
         }
 
-        JWSHeader jwsHeader = convert(headers);
-        JWTClaimsSet claimsSet = convert(claims);
         JWK jwk = selectJwk(headers);
         headers = addKeyIdentifierHeadersIfNecessary(headers, jwk);
+        JWSHeader jwsHeader = convert(headers);
+        JWTClaimsSet claimsSet = convert(claims);
         SignedJWT signedJwt = new SignedJWT(jwsHeader, claimsSet);
-        JWSSigner signer = this.jwsSigners.computeIfAbsent(jwk, DomainTokenEncoder::createSigner);
+        JWSSigner signer = createSigner(jwk);
 
         try {
             signedJwt.sign(signer);
@@ -320,15 +318,15 @@ public class DomainTokenEncoder implements TokenEncoder {
     }
 
     /**
-     * Creates a {@link JWSSigner} for the specified {@link JWK}.
+     * Returns the pooled {@link JWSSigner} for the specified {@link JWK}.
      *
      * @param jwk the JWK instance for which to create the signer
-     * @return the created {@link JWSSigner} instance
+     * @return the {@link JWSSigner} instance
      * @throws JwtEncodingException if the signer cannot be created
      */
-    private static JWSSigner createSigner(JWK jwk) {
+    private JWSSigner createSigner(JWK jwk) {
         try {
-            return JWS_SIGNER_FACTORY.createJWSSigner(jwk);
+            return this.keyCryptoRegistry.signer(jwk);
         } catch (JOSEException var2) {
             throw new JwtEncodingException(ENCODING_ERROR_MESSAGE_TEMPLATE.formatted(
                 "Failed to create a JWS Signer -> " + var2.getMessage()), var2);
@@ -362,17 +360,13 @@ public class DomainTokenEncoder implements TokenEncoder {
     }
 
     /**
-     * Creates an {@link RSAEncrypter} for JWE encryption using the provided RSA key.
+     * Returns the pooled {@link RSAEncrypter} for JWE encryption using the provided RSA key.
      *
      * @param rsaKey the RSA key for encryption
      * @return the configured {@link RSAEncrypter}
      * @throws JOSEException if encryption setup fails
      */
     public JWEEncrypter createEncrypter(RSAKey rsaKey) throws JOSEException {
-        return new RSAEncrypter(rsaKey);
-    }
-
-    static {
-        JWS_SIGNER_FACTORY = new DefaultJWSSignerFactory();
+        return this.keyCryptoRegistry.encrypter(rsaKey);
     }
 }
@@ -1,10 +1,12 @@
 package io.github.susimsek.springnextjssamples.security.token;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEHeader;
 import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.RemoteKeySourceException;
-import com.nimbusds.jose.crypto.RSADecrypter;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWT;
@@ -13,9 +15,17 @@ import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.JWTProcessor;
 import io.github.susimsek.springnextjssamples.security.key.Key;
+import io.github.susimsek.springnextjssamples.security.key.KeyChangedEvent;
+import io.github.susimsek.springnextjssamples.security.key.KeyCryptoRegistry;
 import io.github.susimsek.springnextjssamples.security.key.KeyService;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +42,7 @@ import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
 
 /**
@@ -42,9 +53,14 @@ import org.springframework.util.Assert;
  * <p>This decoder can handle tokens encrypted with RSA keys and performs validation on claims and headers.
  * It also supports setting custom token validators and claim set converters for specific use cases.</p>
  *
+ * <p>Successfully decoded tokens are kept in a bounded cache keyed by the SHA-256 digest of the token string,
+ * so that a bearer presented repeatedly skips decryption and signature verification. Each entry expires at the
+ * token's {@code exp} claim, and the whole cache is invalidated when a key is deactivated or removed.
+ * The configured {@link OAuth2TokenValidator} still runs on every call.</p>
+ *
  * <p>Example usage:
  * <pre>
- *     TokenDecoder decoder = new TokenDecoder(keyService, jwtProcessor);
+ *     TokenDecoder decoder = new TokenDecoder(keyService, jwtProcessor, keyCryptoRegistry);
  *     Jwt decodedJwt = decoder.decode(token);
  * </pre>
  * </p>
@@ -57,14 +73,17 @@ public final class TokenDecoder implements JwtDecoder {
 
     private static final String DECODING_ERROR_MESSAGE_TEMPLATE =
         "An error occurred while attempting to decode the Jwt: %s";
+    private static final String TOKEN_DIGEST_ALGORITHM = "SHA-256";
+    private static final long DEFAULT_CACHE_MAXIMUM_SIZE = 10_000L;
 
     private final Log logger = LogFactory.getLog(this.getClass());
     private final KeyService keyService;
     private final JWTProcessor<SecurityContext> jwtProcessor;
+    private final KeyCryptoRegistry keyCryptoRegistry;
     private OAuth2TokenValidator<Jwt> jwtValidator = JwtValidators.createDefault();
     private Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
         MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
-
+    private Cache<String, Jwt> jwtCache = createJwtCache(DEFAULT_CACHE_MAXIMUM_SIZE);
 
     /**
      * Sets a custom {@link OAuth2TokenValidator} for validating the decoded JWT.
@@ -84,6 +103,41 @@ public final class TokenDecoder implements JwtDecoder {
     public void setClaimSetConverter(Converter<Map<String, Object>, Map<String, Object>> claimSetConverter) {
         Assert.notNull(claimSetConverter, "claimSetConverter cannot be null");
         this.claimSetConverter = claimSetConverter;
+        invalidateCache();
+    }
+
+    /**
+     * Sets the maximum number of decoded tokens kept in the cache. A value of {@code 0} disables caching.
+     *
+     * @param maximumSize the maximum number of cached tokens
+     */
+    public void setCacheMaximumSize(long maximumSize) {
+        Assert.isTrue(maximumSize >= 0, "maximumSize cannot be negative");
+        this.jwtCache = maximumSize > 0 ? createJwtCache(maximumSize) : null;
+    }
+
+    /**
+     * Discards all cached decoded tokens.
+     */
+    public void invalidateCache() {
+        if (this.jwtCache != null) {
+            this.jwtCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidates the decoded token cache once a key change has been committed, if the changed key
+     * can no longer be used to verify or decrypt tokens.
+     *
+     * @param event the key change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeyChanged(KeyChangedEvent event) {
+        if (event.deactivated()) {
+            this.logger.debug("Invalidating decoded token cache after key '%s' was deactivated"
+                .formatted(event.kid()));
+            invalidateCache();
+        }
     }
 
     /**
@@ -96,6 +150,29 @@ public final class TokenDecoder implements JwtDecoder {
      */
     @Override
     public Jwt decode(String token) throws JwtException {
+        Cache<String, Jwt> cache = this.jwtCache;
+        if (cache == null) {
+            return this.validateJwt(this.decodeToken(token));
+        }
+        String cacheKey = digest(token);
+        Jwt cachedJwt = cache.getIfPresent(cacheKey);
+        if (cachedJwt != null) {
+            return this.validateJwt(cachedJwt);
+        }
+        Jwt validatedJwt = this.validateJwt(this.decodeToken(token));
+        if (validatedJwt.getExpiresAt() != null) {
+            cache.put(cacheKey, validatedJwt);
+        }
+        return validatedJwt;
+    }
+
+    /**
+     * Parses, decrypts if necessary, and verifies the given token without running the token validator.
+     *
+     * @param token the encoded JWT token to decode
+     * @return the decoded {@link Jwt} instance
+     */
+    private Jwt decodeToken(String token) {
         JWT jwt;
         if (isJweToken(token)) {
             JWEObject jweObject = this.parseJwe(token);
@@ -107,8 +184,7 @@ public final class TokenDecoder implements JwtDecoder {
         } else {
             jwt = this.parseJwt(token);
         }
-        Jwt createdJwt = this.createJwt(token, jwt);
-        return this.validateJwt(createdJwt);
+        return this.createJwt(token, jwt);
     }
 
     /**
@@ -150,15 +226,14 @@ public final class TokenDecoder implements JwtDecoder {
     }
 
     /**
-     * Decrypts the given {@link JWEObject} using the provided RSA key.
+     * Decrypts the given {@link JWEObject} using the pooled decrypter of the provided RSA key.
      *
      * @param jweObject the JWE object to decrypt
      * @param rsaKey the RSA key to use for decryption
      */
     private void decrypt(JWEObject jweObject, RSAKey rsaKey) {
         try {
-            RSADecrypter decrypter = new RSADecrypter(rsaKey);
-            jweObject.decrypt(decrypter);
+            jweObject.decrypt(this.keyCryptoRegistry.decrypter(rsaKey));
         } catch (JOSEException e) {
             throw new JwtException(DECODING_ERROR_MESSAGE_TEMPLATE.formatted("Unable to decrypt token"), e);
         }
@@ -235,6 +310,51 @@ public final class TokenDecoder implements JwtDecoder {
         return token.split("\\.").length == 5;
     }
 
+    /**
+     * Computes the hex encoded SHA-256 digest of the token, used as the cache key so that raw bearer
+     * tokens are not retained as map keys.
+     *
+     * @param token the JWT token string
+     * @return the hex encoded digest
+     */
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(TOKEN_DIGEST_ALGORITHM);
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to compute token digest", e);
+        }
+    }
+
+    /**
+     * Creates the decoded token cache, expiring each entry at the {@code exp} claim of its token.
+     *
+     * @param maximumSize the maximum number of cached tokens
+     * @return the created cache
+     */
+    private static Cache<String, Jwt> createJwtCache(long maximumSize) {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<String, Jwt>() {
+                @Override
+                public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                    Instant expiresAt = jwt.getExpiresAt();
+                    return Math.max(0L, Duration.between(Instant.now(), expiresAt).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, jwt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
     /**
      * Constructs an error message from a collection of {@link OAuth2Error} objects.
      *
@@ -6,6 +6,7 @@ import com.nimbusds.jose.JWEHeader;
 import io.github.susimsek.springnextjssamples.security.AuthoritiesConstants;
 import io.github.susimsek.springnextjssamples.security.SecurityProperties;
 import io.github.susimsek.springnextjssamples.security.key.Key;
+import io.github.susimsek.springnextjssamples.security.key.KeyRotationService;
 import io.github.susimsek.springnextjssamples.security.key.KeyService;
 import java.time.Instant;
 import java.util.UUID;
@@ -29,7 +30,8 @@ import org.springframework.util.StringUtils;
  *
  * <p>Example usage:
  * <pre>
- *     TokenGenerator generator = new TokenGenerator(tokenEncoder, keyService, securityProperties);
+ *     TokenGenerator generator = new TokenGenerator(tokenEncoder, keyService, securityProperties,
+ *         keyRotationService);
  *     Jwt token = generator.generate(authentication);
  * </pre>
  * </p>
@@ -37,6 +39,7 @@ import org.springframework.util.StringUtils;
  * @see TokenEncoder
  * @see SecurityProperties
  * @see KeyService
+ * @see KeyRotationService
  */
 @RequiredArgsConstructor
 public final class TokenGenerator {
@@ -44,6 +47,7 @@ public final class TokenGenerator {
     private final TokenEncoder tokenEncoder;
     private final KeyService keyService;
     private final SecurityProperties securityProperties;
+    private final KeyRotationService keyRotationService;
 
     /**
      * Generates a JWT based on the specified {@link Authentication} and configured properties.
@@ -87,6 +91,10 @@ public final class TokenGenerator {
 
         // Build JWS and JWE headers
         JwsHeader.Builder jwsHeaderBuilder = JwsHeader.with(jwsAlgorithm);
+        String jwsKeyId = keyRotationService.currentSigningKid();
+        if (jwsKeyId != null) {
+            jwsHeaderBuilder.keyId(jwsKeyId);
+        }
         JwsHeader jwsHeader = jwsHeaderBuilder.build();
 
         JWEHeader.Builder jweHeaderBuilder = new JWEHeader.Builder(jweAlgorithm, encryptionMethod)
@@ -8,9 +8,12 @@ import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import org.springframework.http.HttpMethod;
 import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -21,19 +24,27 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
  * This class provides methods to sanitize request parameters, headers, query strings, URIs, and form data.
  * It is designed to work with JSON and form-based data, and can selectively bypass sanitization for specified headers.
  * </p>
+ * <p>
+ * Since matchers, filters and the handler mapping read the same values repeatedly, each distinct header, URI, path
+ * and query string value is sanitized at most once per request.
+ * </p>
  */
 public class XssRequestWrapper extends ContentCachingRequestWrapper {
 
     private final FastByteArrayOutputStream cachedContent;
-    private final List<String> nonSanitizedHeaders;
+    private final Set<String> nonSanitizedHeaders;
+    private final Map<String, String> sanitizedValues = new HashMap<>();
+    private byte[] sanitizedContent;
+    private String sanitizedContentString;
+    private int sanitizedContentSize = -1;
 
     /**
      * Constructs a new {@code XssRequestWrapper} that wraps the given request and applies sanitization.
      *
      * @param request the original {@link HttpServletRequest} to be wrapped
-     * @param nonSanitizedHeaders a list of headers that should bypass sanitization
+     * @param nonSanitizedHeaders the lower-case names of the headers that should bypass sanitization
      */
-    public XssRequestWrapper(HttpServletRequest request, List<String> nonSanitizedHeaders) {
+    public XssRequestWrapper(HttpServletRequest request, Set<String> nonSanitizedHeaders) {
         super(request);
         this.nonSanitizedHeaders = nonSanitizedHeaders;
         int contentLength = request.getContentLength();
@@ -83,13 +94,20 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
 
     /**
      * Returns the sanitized content as a byte array.
+     * <p>
+     * The content is sanitized once and reused until more content is cached.
+     * </p>
      *
      * @return the sanitized byte array of content
      */
     @Override
     public byte[] getContentAsByteArray() {
-        var content = this.cachedContent.toByteArray();
-        return SanitizationUtil.sanitizeJson(content);
+        if (this.sanitizedContentSize != this.cachedContent.size()) {
+            this.sanitizedContentSize = this.cachedContent.size();
+            this.sanitizedContent = SanitizationUtil.sanitizeJson(this.cachedContent.toByteArray());
+            this.sanitizedContentString = null;
+        }
+        return this.sanitizedContent;
     }
 
     /**
@@ -99,8 +117,11 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
      */
     @Override
     public String getContentAsString() {
-        var content = this.cachedContent.toString(Charset.forName(this.getCharacterEncoding()));
-        return SanitizationUtil.sanitizeJsonString(content);
+        byte[] content = getContentAsByteArray();
+        if (this.sanitizedContentString == null) {
+            this.sanitizedContentString = new String(content, Charset.forName(this.getCharacterEncoding()));
+        }
+        return this.sanitizedContentString;
     }
 
     /**
@@ -114,8 +135,7 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
         if (isNonSanitized(name)) {
             return super.getHeader(name);
         }
-        String value = super.getHeader(name);
-        return value != null ? SanitizationUtil.sanitizeInput(value) : null;
+        return sanitize(super.getHeader(name));
     }
 
     /**
@@ -129,11 +149,9 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
         if (isNonSanitized(name)) {
             return super.getHeaders(name);
         }
-        return Collections.enumeration(
-            Collections.list(super.getHeaders(name)).stream()
-                .map(SanitizationUtil::sanitizeInput)
-                .toList()
-        );
+        List<String> values = Collections.list(super.getHeaders(name));
+        values.replaceAll(this::sanitize);
+        return Collections.enumeration(values);
     }
 
     /**
@@ -143,8 +161,7 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
      */
     @Override
     public String getQueryString() {
-        String queryString = super.getQueryString();
-        return queryString != null ? SanitizationUtil.sanitizeInput(queryString) : null;
+        return sanitize(super.getQueryString());
     }
 
     /**
@@ -154,8 +171,7 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
      */
     @Override
     public String getRequestURI() {
-        String uri = super.getRequestURI();
-        return uri != null ? SanitizationUtil.sanitizeInput(uri) : null;
+        return sanitize(super.getRequestURI());
     }
 
     /**
@@ -166,7 +182,7 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
     @Override
     public StringBuffer getRequestURL() {
         StringBuffer requestURL = super.getRequestURL();
-        return requestURL != null ? new StringBuffer(SanitizationUtil.sanitizeInput(requestURL.toString())) : null;
+        return requestURL != null ? new StringBuffer(sanitize(requestURL.toString())) : null;
     }
 
     /**
@@ -176,8 +192,7 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
      */
     @Override
     public String getServletPath() {
-        String servletPath = super.getServletPath();
-        return servletPath != null ? SanitizationUtil.sanitizeInput(servletPath) : null;
+        return sanitize(super.getServletPath());
     }
 
     /**
@@ -187,8 +202,7 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
      */
     @Override
     public String getPathInfo() {
-        String pathInfo = super.getPathInfo();
-        return pathInfo != null ? SanitizationUtil.sanitizeInput(pathInfo) : null;
+        return sanitize(super.getPathInfo());
     }
 
     /**
@@ -198,8 +212,20 @@ public class XssRequestWrapper extends ContentCachingRequestWrapper {
      * @return {@code true} if the header should not be sanitized, {@code false} otherwise
      */
     private boolean isNonSanitized(String headerName) {
-        return nonSanitizedHeaders.stream()
-            .anyMatch(item -> item.equalsIgnoreCase(headerName));
+        return nonSanitizedHeaders.contains(headerName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Sanitizes a value, reusing the result of a previous call with the same value.
+     *
+     * @param value the value to sanitize, may be {@code null}
+     * @return the sanitized value, or {@code null} if the value is {@code null}
+     */
+    private String sanitize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return sanitizedValues.computeIfAbsent(value, SanitizationUtil::sanitizeInput);
     }
 
     /**
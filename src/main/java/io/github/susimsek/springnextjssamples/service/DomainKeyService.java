@@ -1,14 +1,21 @@
 package io.github.susimsek.springnextjssamples.service;
 
+import static io.github.susimsek.springnextjssamples.config.cache.CacheName.KEY_ENTITY_BY_KID_CACHE;
+import static io.github.susimsek.springnextjssamples.config.cache.CacheName.KEY_ENTITY_BY_USE_CACHE;
+
 import com.nimbusds.jose.jwk.KeyUse;
 import io.github.susimsek.springnextjssamples.entity.KeyEntity;
 import io.github.susimsek.springnextjssamples.service.mapper.KeyMapper;
 import io.github.susimsek.springnextjssamples.repository.KeyRepository;
 import io.github.susimsek.springnextjssamples.security.key.Key;
+import io.github.susimsek.springnextjssamples.security.key.KeyChangedEvent;
+import io.github.susimsek.springnextjssamples.security.key.KeyMaterialCache;
 import io.github.susimsek.springnextjssamples.security.key.KeyService;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -18,6 +25,7 @@ public class DomainKeyService implements KeyService {
 
     private final KeyRepository keyRepository;
     private final KeyMapper authorizationMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -29,6 +37,7 @@ public class DomainKeyService implements KeyService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {KEY_ENTITY_BY_KID_CACHE, KEY_ENTITY_BY_USE_CACHE}, allEntries = true)
     public void save(Key key) {
         Assert.notNull(key, "key cannot be null");
         Optional<KeyEntity> existingKey = keyRepository.findById(key.getId());
@@ -37,6 +46,8 @@ public class DomainKeyService implements KeyService {
         } else {
             insertKey(key);
         }
+        KeyMaterialCache.invalidate(key.getKid());
+        eventPublisher.publishEvent(KeyChangedEvent.saved(key));
     }
 
     private void updateKey(Key key, KeyEntity existingKey) {
@@ -50,6 +61,19 @@ public class DomainKeyService implements KeyService {
         keyRepository.save(entity);
     }
 
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = {KEY_ENTITY_BY_KID_CACHE, KEY_ENTITY_BY_USE_CACHE}, allEntries = true)
+    public void deactivate(String kid) {
+        Assert.hasText(kid, "kid cannot be empty");
+        keyRepository.findById(kid).ifPresent(entity -> {
+            entity.setActive(false);
+            keyRepository.save(entity);
+            KeyMaterialCache.invalidate(kid);
+            eventPublisher.publishEvent(KeyChangedEvent.saved(authorizationMapper.toModel(entity)));
+        });
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Key findById(String id) {
@@ -81,8 +105,11 @@ public class DomainKeyService implements KeyService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {KEY_ENTITY_BY_KID_CACHE, KEY_ENTITY_BY_USE_CACHE}, allEntries = true)
     public void remove(Key key) {
         Assert.notNull(key, "key cannot be null");
         keyRepository.deleteById(key.getId());
+        KeyMaterialCache.invalidate(key.getKid());
+        eventPublisher.publishEvent(KeyChangedEvent.removed(key));
     }
 }
@@ -1,14 +1,15 @@
 package io.github.susimsek.springnextjssamples.service;
 
-import io.github.susimsek.springnextjssamples.config.cache.CacheName;
+import io.github.susimsek.springnextjssamples.config.i18n.MessageVersion;
 import io.github.susimsek.springnextjssamples.entity.MessageEntity;
 import io.github.susimsek.springnextjssamples.repository.MessageRepository;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -16,14 +17,25 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
 
-    @Cacheable(value = CacheName.MESSAGES_CACHE, key = "#locale")
-    public Map<String, String> getMessages(String locale) {
-        return loadMessagesFromDatabase(locale);
+    @Transactional(readOnly = true)
+    public MessageVersion getVersion() {
+        return messageRepository.findVersion();
     }
 
-    private Map<String, String> loadMessagesFromDatabase(String locale) {
-        List<MessageEntity> messages = messageRepository.findByLocale(locale);
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, String>> getAllMessages() {
+        return groupByLocale(messageRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, String>> getMessagesChangedSince(Instant since) {
+        return groupByLocale(
+            messageRepository.findByCreatedAtGreaterThanEqualOrUpdatedAtGreaterThanEqual(since, since));
+    }
+
+    private Map<String, Map<String, String>> groupByLocale(List<MessageEntity> messages) {
         return messages.stream()
-            .collect(Collectors.toMap(MessageEntity::getCode, MessageEntity::getContent));
+            .collect(Collectors.groupingBy(MessageEntity::getLocale,
+                Collectors.toMap(MessageEntity::getCode, MessageEntity::getContent)));
     }
 }
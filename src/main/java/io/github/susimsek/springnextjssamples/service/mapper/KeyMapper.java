@@ -2,11 +2,10 @@ package io.github.susimsek.springnextjssamples.service.mapper;
 
 import com.nimbusds.jose.jwk.KeyUse;
 import io.github.susimsek.springnextjssamples.entity.KeyEntity;
-import io.github.susimsek.springnextjssamples.security.EncryptionConstants;
 import io.github.susimsek.springnextjssamples.security.key.Key;
-import java.nio.charset.StandardCharsets;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Base64;
 import java.util.List;
 import org.mapstruct.Mapper;
 
@@ -27,6 +26,7 @@ public interface KeyMapper {
         entity.setActive(model.isActive());
         entity.setKid(model.getKid());
         entity.setUse(keyUseToString(model.getUse()));
+        entity.setActivatedAt(model.getActivatedAt());
 
         return entity;
     }
@@ -46,6 +46,7 @@ public interface KeyMapper {
             .active(entity.isActive())
             .kid(entity.getKid())
             .use(entity.getUse())
+            .activatedAt(entity.getActivatedAt())
             .build();
     }
 
@@ -55,18 +56,14 @@ public interface KeyMapper {
         if (publicKey == null) {
             return null;
         }
-        String encodedKey = new String(publicKey.getEncoded(), StandardCharsets.UTF_8);
-        return encodedKey.replace(EncryptionConstants.PUBLIC_KEY_HEADER, "")
-            .replace(EncryptionConstants.PUBLIC_KEY_FOOTER, "");
+        return Base64.getEncoder().encodeToString(publicKey.getEncoded());
     }
 
     static String privateKeyToString(PrivateKey privateKey) {
         if (privateKey == null) {
             return null;
         }
-        String encodedKey = new String(privateKey.getEncoded(), StandardCharsets.UTF_8);
-        return encodedKey.replace(EncryptionConstants.PRIVATE_KEY_HEADER, "")
-            .replace(EncryptionConstants.PRIVATE_KEY_FOOTER, "");
+        return Base64.getEncoder().encodeToString(privateKey.getEncoded());
     }
 
     static String keyUseToString(KeyUse keyUse) {
@@ -2,11 +2,9 @@ package io.github.susimsek.springnextjssamples.utils;
 
 import io.github.susimsek.springnextjssamples.security.xss.XssRequestWrapper;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import java.util.List;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 @UtilityClass
 public class HttpServletWrapperUtils {
@@ -19,20 +17,20 @@ public class HttpServletWrapperUtils {
         }
     }
 
-    public static XssRequestWrapper wrapRequest(HttpServletRequest request,
-                                                List<String> nonSanitizedHeaders) {
-        if (request instanceof XssRequestWrapper wrapper) {
+    public static ContentCachingRequestWrapper wrapRequest(HttpServletRequest request, int contentCacheLimit) {
+        if (request instanceof ContentCachingRequestWrapper wrapper) {
             return wrapper;
         } else {
-            return new XssRequestWrapper(request, nonSanitizedHeaders);
+            return new ContentCachingRequestWrapper(request, contentCacheLimit);
         }
     }
 
-    public static ContentCachingResponseWrapper wrapResponse(HttpServletResponse response) {
-        if (response instanceof ContentCachingResponseWrapper wrapper) {
+    public static XssRequestWrapper wrapRequest(HttpServletRequest request,
+                                                Set<String> nonSanitizedHeaders) {
+        if (request instanceof XssRequestWrapper wrapper) {
             return wrapper;
         } else {
-            return new ContentCachingResponseWrapper(response);
+            return new XssRequestWrapper(request, nonSanitizedHeaders);
         }
     }
 }
@@ -0,0 +1,244 @@
+package io.github.susimsek.springnextjssamples.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+/**
+ * Ordered list of request rules compiled into an index, returning the value of the first rule matching a request.
+ *
+ * <p>Path patterns are parsed once into {@link PathPattern}s, falling back to an {@link AntPathMatcher} for the
+ * patterns it does not support, e.g. {@code **} in the middle of a pattern. The rules are then grouped by HTTP method
+ * and by the first path segment of their pattern, when it is a literal: a lookup only tries the rules of the request
+ * method whose first segment is the one of the request, or is not a literal, in their declaration order. Rules given
+ * as opaque {@link RequestMatcher}s are kept in every group and only apply to servlet requests.</p>
+ *
+ * @param <T> the type of the rule values
+ */
+public final class RequestMatcherIndex<T> {
+
+    private static final PathPatternParser PATH_PATTERN_PARSER = new PathPatternParser();
+    private static final PathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    private final Map<String, Group<T>> methodGroups;
+    private final Group<T> anyMethodGroup;
+
+    private RequestMatcherIndex(Map<String, Group<T>> methodGroups, Group<T> anyMethodGroup) {
+        this.methodGroups = methodGroups;
+        this.anyMethodGroup = anyMethodGroup;
+    }
+
+    /**
+     * Creates a builder adding rules in their matching order.
+     *
+     * @param <T> the type of the rule values
+     * @return the builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Indicates whether no rule has been added.
+     *
+     * @return {@code true} if no request matches
+     */
+    public boolean isEmpty() {
+        return anyMethodGroup.isEmpty() && methodGroups.isEmpty();
+    }
+
+    /**
+     * Returns the value of the first rule matching the given servlet request, tested against its request URI.
+     *
+     * @param request the request
+     * @return the value of the matching rule, or {@code null} if none matches
+     */
+    @Nullable
+    public T match(HttpServletRequest request) {
+        return group(request.getMethod()).match(request.getRequestURI(), request);
+    }
+
+    /**
+     * Returns the value of the first path rule matching the given method and path. Rules given as
+     * {@link RequestMatcher}s are skipped.
+     *
+     * @param method the HTTP method
+     * @param path   the request path
+     * @return the value of the matching rule, or {@code null} if none matches
+     */
+    @Nullable
+    public T match(HttpMethod method, String path) {
+        return group(method.name()).match(path, null);
+    }
+
+    private Group<T> group(String method) {
+        Group<T> group = methodGroups.get(method);
+        return group != null ? group : anyMethodGroup;
+    }
+
+    private static String firstSegment(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The rules of a single HTTP method.
+     */
+    private static final class Group<T> {
+
+        private final Map<String, Rule<T>[]> literalSegments;
+        private final Rule<T>[] otherSegments;
+
+        private Group(Map<String, Rule<T>[]> literalSegments, Rule<T>[] otherSegments) {
+            this.literalSegments = literalSegments;
+            this.otherSegments = otherSegments;
+        }
+
+        private boolean isEmpty() {
+            return literalSegments.isEmpty() && otherSegments.length == 0;
+        }
+
+        @Nullable
+        private T match(String path, @Nullable HttpServletRequest request) {
+            Rule<T>[] rules = literalSegments.getOrDefault(firstSegment(path), otherSegments);
+            PathContainer pathContainer = null;
+            for (Rule<T> rule : rules) {
+                boolean matches;
+                if (rule.pathPattern != null) {
+                    if (pathContainer == null) {
+                        pathContainer = PathContainer.parsePath(path);
+                    }
+                    matches = rule.pathPattern.matches(pathContainer);
+                } else if (rule.antPattern != null) {
+                    matches = ANT_PATH_MATCHER.match(rule.antPattern, path);
+                } else {
+                    matches = request != null && rule.requestMatcher.matches(request);
+                }
+                if (matches) {
+                    return rule.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Rule<T>(@Nullable String method, @Nullable String firstSegment, @Nullable PathPattern pathPattern,
+                           @Nullable String antPattern, @Nullable RequestMatcher requestMatcher, T value) {
+    }
+
+    /**
+     * Builder of a {@link RequestMatcherIndex}.
+     *
+     * @param <T> the type of the rule values
+     */
+    public static final class Builder<T> {
+
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a rule matching the requests whose path matches the given pattern.
+         *
+         * @param method  the HTTP method, {@code null} for every method
+         * @param pattern the path pattern
+         * @param value   the value of the rule
+         * @return this builder
+         */
+        public Builder<T> add(@Nullable HttpMethod method, String pattern, T value) {
+            String methodName = method != null ? method.name() : null;
+            String segment = firstSegment(pattern);
+            String firstSegment = isLiteral(segment) ? segment : null;
+            try {
+                PathPattern pathPattern = PATH_PATTERN_PARSER.parse(pattern);
+                rules.add(new Rule<>(methodName, firstSegment, pathPattern, null, null, value));
+            } catch (PatternParseException e) {
+                rules.add(new Rule<>(methodName, firstSegment, null, pattern, null, value));
+            }
+            return this;
+        }
+
+        /**
+         * Adds a rule matching the servlet requests the given matcher matches.
+         *
+         * @param requestMatcher the request matcher
+         * @param value          the value of the rule
+         * @return this builder
+         */
+        public Builder<T> add(RequestMatcher requestMatcher, T value) {
+            rules.add(new Rule<>(null, null, null, null, requestMatcher, value));
+            return this;
+        }
+
+        /**
+         * Compiles the rules added so far.
+         *
+         * @return the index
+         */
+        public RequestMatcherIndex<T> build() {
+            Set<String> methods = new LinkedHashSet<>();
+            for (Rule<T> rule : rules) {
+                if (rule.method != null) {
+                    methods.add(rule.method);
+                }
+            }
+            Map<String, Group<T>> methodGroups = new HashMap<>();
+            for (String method : methods) {
+                methodGroups.put(method, group(method));
+            }
+            return new RequestMatcherIndex<>(methodGroups, group(null));
+        }
+
+        private Group<T> group(@Nullable String method) {
+            List<Rule<T>> methodRules = rules.stream()
+                .filter(rule -> rule.method == null || rule.method.equals(method))
+                .toList();
+            Set<String> segments = new LinkedHashSet<>();
+            for (Rule<T> rule : methodRules) {
+                if (rule.firstSegment != null) {
+                    segments.add(rule.firstSegment);
+                }
+            }
+            Map<String, Rule<T>[]> literalSegments = new HashMap<>();
+            for (String segment : segments) {
+                literalSegments.put(segment, toArray(methodRules.stream()
+                    .filter(rule -> rule.firstSegment == null || rule.firstSegment.equals(segment))
+                    .toList()));
+            }
+            Rule<T>[] otherSegments = toArray(methodRules.stream()
+                .filter(rule -> rule.firstSegment == null)
+                .toList());
+            return new Group<>(literalSegments, otherSegments);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Rule<T>[] toArray(List<Rule<T>> rules) {
+            return rules.toArray(new Rule[0]);
+        }
+    }
+}
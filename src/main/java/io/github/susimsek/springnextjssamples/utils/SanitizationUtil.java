@@ -1,76 +1,336 @@
 package io.github.susimsek.springnextjssamples.utils;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import lombok.experimental.UtilityClass;
 
+/**
+ * Removes script injection constructs from user input.
+ *
+ * <p>Inputs are first scanned once for the trigger tokens of the removal rules ({@code <script}, {@code src},
+ * {@code </script>}, {@code eval(}, {@code expression(}, {@code javascript:}, {@code vbscript:} and
+ * {@code onload}) with an Aho-Corasick automaton. Clean inputs, by far the most common, are returned as is. Otherwise,
+ * the rules are applied in order, skipping those whose trigger token is absent from the current text, since they
+ * cannot match it: literal rules are removed by a direct scan and the others by their regular expression.</p>
+ */
 @UtilityClass
 public class SanitizationUtil {
 
-    private static final Pattern[] patterns = new Pattern[] {
-        Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("src[\r\n]*=[\r\n]*'(.*?)'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("src[\r\n]*=[\r\n]*\"(.*?)\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("</script>", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)
+    private static final int SCRIPT_OPEN = 1;
+    private static final int SRC = 1 << 1;
+    private static final int SCRIPT_CLOSE = 1 << 2;
+    private static final int EVAL = 1 << 3;
+    private static final int EXPRESSION = 1 << 4;
+    private static final int JAVASCRIPT = 1 << 5;
+    private static final int VBSCRIPT = 1 << 6;
+    private static final int ONLOAD = 1 << 7;
+
+    private static final Rule[] rules = new Rule[] {
+        Rule.pattern(SCRIPT_OPEN, Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE)),
+        Rule.pattern(SRC, Pattern.compile("src[\r\n]*=[\r\n]*'(.*?)'",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)),
+        Rule.pattern(SRC, Pattern.compile("src[\r\n]*=[\r\n]*\"(.*?)\"",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)),
+        Rule.literal(SCRIPT_CLOSE, "</script>"),
+        Rule.pattern(SCRIPT_OPEN, Pattern.compile("<script(.*?)>",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)),
+        Rule.pattern(EVAL, Pattern.compile("eval\\((.*?)\\)",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)),
+        Rule.pattern(EXPRESSION, Pattern.compile("expression\\((.*?)\\)",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)),
+        Rule.literal(JAVASCRIPT, "javascript:"),
+        Rule.literal(VBSCRIPT, "vbscript:"),
+        Rule.pattern(ONLOAD, Pattern.compile("onload(.*?)=",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL))
     };
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TriggerScanner triggerScanner = new TriggerScanner(Map.of(
+        "<script", SCRIPT_OPEN,
+        "src", SRC,
+        "</script>", SCRIPT_CLOSE,
+        "eval(", EVAL,
+        "expression(", EXPRESSION,
+        "javascript:", JAVASCRIPT,
+        "vbscript:", VBSCRIPT,
+        "onload", ONLOAD));
+
+    private final JsonFactory jsonFactory = new JsonFactory();
 
+    /**
+     * Removes script injection constructs from the given input.
+     *
+     * @param input the input, may be {@code null}
+     * @return the sanitized input, or the given instance if there is nothing to remove
+     */
     public static String sanitizeInput(String input) {
         if (input == null) {
             return null;
         }
+        int triggers = triggerScanner.scan(input);
+        if (triggers == 0) {
+            return input;
+        }
 
         String sanitized = input;
-        for (Pattern pattern : patterns) {
-            sanitized = pattern.matcher(sanitized).replaceAll("");
+        for (Rule rule : rules) {
+            if ((triggers & rule.trigger) == 0) {
+                continue;
+            }
+            String result = rule.apply(sanitized);
+            if (result != sanitized) {
+                sanitized = result;
+                triggers = triggerScanner.scan(sanitized);
+            }
         }
-
         return sanitized;
     }
 
-    public JsonNode sanitizeJsonNode(JsonNode jsonNode) {
-        if (jsonNode.isObject()) {
-            jsonNode.fields().forEachRemaining(entry -> {
-                JsonNode value = entry.getValue();
-                if (value.isTextual()) {
-                    ((ObjectNode) jsonNode).put(entry.getKey(), sanitizeInput(value.textValue()));
-                } else if (value.isContainerNode()) {
-                    sanitizeJsonNode(value);
-                }
-            });
-        } else if (jsonNode.isArray()) {
-            jsonNode.forEach(SanitizationUtil::sanitizeJsonNode);
-        }
-        return jsonNode;
-    }
-
+    /**
+     * Sanitizes the string values of the object fields of a JSON document, streaming over its tokens.
+     *
+     * @param jsonString the JSON document
+     * @return the sanitized document, or the given instance if no value needs sanitization or it is not valid JSON
+     */
     public String sanitizeJsonString(String jsonString) {
         try {
-            JsonNode jsonNode = objectMapper.readTree(jsonString);
-            jsonNode = sanitizeJsonNode(jsonNode);
-            return objectMapper.writeValueAsString(jsonNode);
+            try (JsonParser parser = jsonFactory.createParser(jsonString)) {
+                if (isSanitized(parser)) {
+                    return jsonString;
+                }
+            }
+            StringWriter writer = new StringWriter(jsonString.length());
+            try (JsonParser parser = jsonFactory.createParser(jsonString);
+                 JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+                copySanitized(parser, generator);
+            }
+            return writer.toString();
         } catch (IOException e) {
             return jsonString;
         }
     }
 
+    /**
+     * Sanitizes the string values of the object fields of a JSON document, streaming over its tokens.
+     *
+     * @param jsonContent the JSON document
+     * @return the sanitized document, or the given array if no value needs sanitization or it is not valid JSON
+     */
     public byte[] sanitizeJson(byte[] jsonContent) {
         try {
-            JsonNode jsonNode = objectMapper.readTree(jsonContent);
-            jsonNode = sanitizeJsonNode(jsonNode);
-            return objectMapper.writeValueAsBytes(jsonNode);
+            try (JsonParser parser = jsonFactory.createParser(jsonContent)) {
+                if (isSanitized(parser)) {
+                    return jsonContent;
+                }
+            }
+            ByteArrayBuilder output = new ByteArrayBuilder(jsonContent.length);
+            try (JsonParser parser = jsonFactory.createParser(jsonContent);
+                 JsonGenerator generator = jsonFactory.createGenerator(output)) {
+                copySanitized(parser, generator);
+            }
+            return output.toByteArray();
         } catch (IOException e) {
             return jsonContent;
         }
     }
+
+    /**
+     * Reads the first JSON value of the parser, returning as soon as a value needing sanitization is found.
+     */
+    private boolean isSanitized(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        int depth = 0;
+        while (token != null) {
+            if (token == JsonToken.VALUE_STRING && parser.getParsingContext().inObject()) {
+                String text = parser.getText();
+                if (!text.equals(sanitizeInput(text))) {
+                    return false;
+                }
+            } else if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                break;
+            }
+            token = parser.nextToken();
+        }
+        return true;
+    }
+
+    private void copySanitized(JsonParser parser, JsonGenerator generator) throws IOException {
+        JsonToken token = parser.nextToken();
+        int depth = 0;
+        while (token != null) {
+            if (token == JsonToken.VALUE_STRING && parser.getParsingContext().inObject()) {
+                generator.writeString(sanitizeInput(parser.getText()));
+            } else {
+                generator.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+            if (depth == 0) {
+                break;
+            }
+            token = parser.nextToken();
+        }
+    }
+
+    /**
+     * A removal rule, applied only when its trigger token is present.
+     */
+    private record Rule(int trigger, Pattern pattern, char[] literal) {
+
+        private static Rule pattern(int trigger, Pattern pattern) {
+            return new Rule(trigger, pattern, null);
+        }
+
+        private static Rule literal(int trigger, String literal) {
+            return new Rule(trigger, null, literal.toCharArray());
+        }
+
+        private String apply(String input) {
+            return pattern != null ? pattern.matcher(input).replaceAll("") : removeLiteral(input);
+        }
+
+        /**
+         * Removes the occurrences of the literal, matching ASCII letters case-insensitively like
+         * {@link Pattern#CASE_INSENSITIVE} does.
+         */
+        private String removeLiteral(String input) {
+            StringBuilder result = null;
+            int copied = 0;
+            int last = input.length() - literal.length;
+            for (int i = 0; i <= last; i++) {
+                if (regionMatches(input, i)) {
+                    if (result == null) {
+                        result = new StringBuilder(input.length());
+                    }
+                    result.append(input, copied, i);
+                    i += literal.length - 1;
+                    copied = i + 1;
+                }
+            }
+            if (result == null) {
+                return input;
+            }
+            return result.append(input, copied, input.length()).toString();
+        }
+
+        private boolean regionMatches(String input, int offset) {
+            for (int j = 0; j < literal.length; j++) {
+                if (TriggerScanner.toLowerAscii(input.charAt(offset + j)) != literal[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Aho-Corasick automaton over lower-case ASCII trigger tokens, reporting which of them occur in a text in a
+     * single pass.
+     */
+    private static final class TriggerScanner {
+
+        private static final int ALPHABET_SIZE = 128;
+
+        private final int[][] transitions;
+        private final int[] outputs;
+
+        private TriggerScanner(Map<String, Integer> tokens) {
+            List<int[]> gotos = new ArrayList<>();
+            List<Integer> tokenOutputs = new ArrayList<>();
+            gotos.add(newState());
+            tokenOutputs.add(0);
+            tokens.forEach((token, bit) -> {
+                int state = 0;
+                for (char c : token.toCharArray()) {
+                    if (gotos.get(state)[c] < 0) {
+                        gotos.get(state)[c] = gotos.size();
+                        gotos.add(newState());
+                        tokenOutputs.add(0);
+                    }
+                    state = gotos.get(state)[c];
+                }
+                tokenOutputs.set(state, tokenOutputs.get(state) | bit);
+            });
+
+            int stateCount = gotos.size();
+            this.transitions = new int[stateCount][];
+            this.outputs = new int[stateCount];
+            int[] failures = new int[stateCount];
+            Deque<Integer> queue = new ArrayDeque<>();
+            transitions[0] = new int[ALPHABET_SIZE];
+            outputs[0] = tokenOutputs.get(0);
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                int next = gotos.get(0)[c];
+                if (next > 0) {
+                    transitions[0][c] = next;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                int failure = failures[state];
+                transitions[state] = new int[ALPHABET_SIZE];
+                outputs[state] = tokenOutputs.get(state) | outputs[failure];
+                for (int c = 0; c < ALPHABET_SIZE; c++) {
+                    int next = gotos.get(state)[c];
+                    if (next > 0) {
+                        failures[next] = transitions[failure][c];
+                        transitions[state][c] = next;
+                        queue.add(next);
+                    } else {
+                        transitions[state][c] = transitions[failure][c];
+                    }
+                }
+            }
+        }
+
+        private static int[] newState() {
+            int[] state = new int[ALPHABET_SIZE];
+            Arrays.fill(state, -1);
+            return state;
+        }
+
+        private static char toLowerAscii(char c) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        /**
+         * Scans the text for the trigger tokens.
+         *
+         * @return the bits of the tokens found
+         */
+        private int scan(String text) {
+            int state = 0;
+            int found = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c >= ALPHABET_SIZE) {
+                    state = 0;
+                    continue;
+                }
+                state = transitions[state][toLowerAscii(c)];
+                found |= outputs[state];
+            }
+            return found;
+        }
+    }
 }
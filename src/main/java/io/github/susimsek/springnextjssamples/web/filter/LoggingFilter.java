@@ -3,32 +3,49 @@ package io.github.susimsek.springnextjssamples.web.filter;
 import io.github.susimsek.springnextjssamples.enums.FilterOrder;
 import io.github.susimsek.springnextjssamples.config.logging.enums.Source;
 import io.github.susimsek.springnextjssamples.config.logging.handler.LoggingHandler;
+import io.github.susimsek.springnextjssamples.config.logging.wrapper.LoggingRequestWrapper;
+import io.github.susimsek.springnextjssamples.config.logging.wrapper.LoggingResponseWrapper;
 import io.github.susimsek.springnextjssamples.utils.HttpHeadersUtils;
-import io.github.susimsek.springnextjssamples.utils.HttpServletWrapperUtils;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.util.StopWatch;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.servlet.DispatcherServlet;
 
+/**
+ * Servlet filter logging incoming requests and their responses.
+ *
+ * <p>The response body is passed through to the client as it is written; only its first
+ * {@code maxPayloadSize} bytes are kept for logging, and none for the excluded content types such as server-sent
+ * events and binary downloads. The request body is cached up to the same size. The logged body sizes are the
+ * real ones, so truncated bodies are flagged as such; a chunked request body the handler did not read to its end
+ * is flagged as truncated too, as its size is unknown.</p>
+ *
+ * <p>Requests sampled out by the {@link LoggingHandler} are not captured: they are only logged, without request
+ * body, when the tail decision keeps them, and their response body is kept only for error statuses.</p>
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class LoggingFilter extends OncePerRequestFilter implements Ordered {
 
     private final LoggingHandler loggingHandler;
+    private final int maxPayloadSize;
+    private final List<MediaType> excludedContentTypes;
 
     @Setter
     private int order = FilterOrder.LOGGING.order();
@@ -47,34 +64,52 @@ public class LoggingFilter extends OncePerRequestFilter implements Ordered {
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        ContentCachingRequestWrapper wrappedRequest = HttpServletWrapperUtils.wrapRequest(request);
-        ContentCachingResponseWrapper wrappedResponse = HttpServletWrapperUtils.wrapResponse(response);
+        boolean sampled = loggingHandler.isSampled(request);
+        HttpServletRequest wrappedRequest = sampled
+            ? new LoggingRequestWrapper(request, maxPayloadSize)
+            : request;
+        LoggingResponseWrapper wrappedResponse = new LoggingResponseWrapper(
+            response, maxPayloadSize, excludedContentTypes, !sampled);
 
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
         filterChain.doFilter(wrappedRequest, wrappedResponse);
+        wrappedResponse.flush();
 
         stopWatch.stop();
         long duration = stopWatch.getTotalTimeMillis();
 
-        logRequestAndResponse(wrappedRequest, wrappedResponse, duration);
-        wrappedResponse.copyBodyToResponse();
+        if (sampled || loggingHandler.shouldKeep(wrappedResponse.getStatus(), duration, isFailed(request))) {
+            logRequestAndResponse(wrappedRequest, wrappedResponse, duration);
+        }
+    }
+
+    private boolean isFailed(HttpServletRequest request) {
+        return request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) != null
+            || request.getAttribute(RequestDispatcher.ERROR_EXCEPTION) != null;
     }
 
-    private void logRequestAndResponse(ContentCachingRequestWrapper request,
-                                       ContentCachingResponseWrapper response,
+    private void logRequestAndResponse(HttpServletRequest request,
+                                       LoggingResponseWrapper response,
                                        long duration) {
         try {
             URI uri = new URI(request.getRequestURL().toString());
             HttpHeaders requestHeaders = HttpHeadersUtils.convertToHttpHeaders(request);
             HttpHeaders responseHeaders = HttpHeadersUtils.convertToHttpHeaders(response);
 
+            byte[] requestBody = new byte[0];
+            long requestBodySize = Math.max(request.getContentLengthLong(), 0);
+            if (request instanceof LoggingRequestWrapper wrapper) {
+                requestBody = wrapper.getContentAsByteArray();
+                requestBodySize = wrapper.getContentSize();
+            }
             loggingHandler.logRequest(
                 HttpMethod.valueOf(request.getMethod()),
                 uri,
                 requestHeaders,
-                request.getContentAsByteArray(),
+                requestBody,
+                requestBodySize,
                 Source.SERVER
             );
             loggingHandler.logResponse(
@@ -82,7 +117,8 @@ public class LoggingFilter extends OncePerRequestFilter implements Ordered {
                 uri,
                 response.getStatus(),
                 responseHeaders,
-                response.getContentAsByteArray(),
+                response.getCapturedContent(),
+                response.getContentSize(),
                 Source.SERVER,
                 duration
             );
@@ -0,0 +1,154 @@
+package io.github.susimsek.springnextjssamples.web.filter;
+
+import static io.github.susimsek.springnextjssamples.constant.RateLimitConstants.RATE_LIMIT_LIMIT_HEADER_NAME;
+import static io.github.susimsek.springnextjssamples.constant.RateLimitConstants.RATE_LIMIT_REMAINING_HEADER_NAME;
+import static io.github.susimsek.springnextjssamples.constant.RateLimitConstants.RATE_LIMIT_RESET_HEADER_NAME;
+
+import io.github.susimsek.springnextjssamples.exception.ratelimit.RateLimitExceptionHandler;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimitProbe;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimiter;
+import io.github.susimsek.springnextjssamples.security.ratelimit.RateLimiterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Servlet filter applying the {@link RateLimiter} configured for the first matching request matcher.
+ *
+ * <p>Granted requests carry the {@code X-Rate-Limit-*} headers; refused requests are handed to the
+ * {@link RateLimitExceptionHandler} with a
+ * {@link io.github.susimsek.springnextjssamples.exception.ratelimit.RateLimitExceededException}.</p>
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<RequestMatcherConfig> requestMatcherConfigs;
+    private final RateLimiter defaultRateLimiter;
+    private final RateLimitExceptionHandler rateLimitExceptionHandler;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+        RateLimiter rateLimiter = rateLimiter(request);
+        if (rateLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RateLimitProbe probe = rateLimiter.tryAcquire(request);
+        if (!probe.consumed()) {
+            rateLimitExceptionHandler.handle(request, response, rateLimiter.exceeded(probe));
+            return;
+        }
+        response.setHeader(RATE_LIMIT_LIMIT_HEADER_NAME, String.valueOf(rateLimiter.getLimitForPeriod()));
+        response.setHeader(RATE_LIMIT_REMAINING_HEADER_NAME, String.valueOf(probe.remaining()));
+        response.setHeader(RATE_LIMIT_RESET_HEADER_NAME, String.valueOf(probe.resetTimeMillis()));
+        filterChain.doFilter(request, response);
+    }
+
+    @Nullable
+    private RateLimiter rateLimiter(HttpServletRequest request) {
+        for (RequestMatcherConfig config : requestMatcherConfigs) {
+            if (config.requestMatcher.matches(request)) {
+                return config.rateLimiter;
+            }
+        }
+        return defaultRateLimiter;
+    }
+
+    @AllArgsConstructor
+    private static class RequestMatcherConfig {
+        private final RequestMatcher requestMatcher;
+        private RateLimiter rateLimiter;
+    }
+
+    public interface InitialBuilder {
+
+        AfterRequestMatchersBuilder anyRequest();
+
+        AfterRequestMatchersBuilder requestMatchers(RequestMatcher... requestMatchers);
+
+        RateLimitFilter build();
+    }
+
+    public interface AfterRequestMatchersBuilder {
+
+        InitialBuilder permitAll();
+
+        InitialBuilder limitedBy(String rateLimiterName);
+    }
+
+    public static InitialBuilder builder(RateLimiterRegistry rateLimiterRegistry,
+                                         RateLimitExceptionHandler rateLimitExceptionHandler) {
+        return new Builder(rateLimiterRegistry, rateLimitExceptionHandler);
+    }
+
+    @RequiredArgsConstructor
+    private static class Builder implements InitialBuilder, AfterRequestMatchersBuilder {
+
+        private final RateLimiterRegistry rateLimiterRegistry;
+        private final RateLimitExceptionHandler rateLimitExceptionHandler;
+        private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
+        private boolean anyRequestConfigured = false;
+        private RateLimiter defaultRateLimiter;
+        private int lastIndex = 0;
+
+        @Override
+        public Builder requestMatchers(RequestMatcher... requestMatchers) {
+            Assert.state(!this.anyRequestConfigured, "requestMatchers() cannot be called after anyRequest()");
+            lastIndex = requestMatcherConfigs.size();
+            for (RequestMatcher requestMatcher : requestMatchers) {
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(requestMatcher, null));
+            }
+            return this;
+        }
+
+        @Override
+        public Builder anyRequest() {
+            Assert.state(!this.anyRequestConfigured, "anyRequest() can only be called once");
+            this.anyRequestConfigured = true;
+            return this;
+        }
+
+        @Override
+        public Builder permitAll() {
+            return apply(null);
+        }
+
+        @Override
+        public Builder limitedBy(String rateLimiterName) {
+            return apply(rateLimiterRegistry.find(rateLimiterName));
+        }
+
+        private Builder apply(@Nullable RateLimiter rateLimiter) {
+            Assert.state(anyRequestConfigured || !requestMatcherConfigs.isEmpty(),
+                "permitAll() and limitedBy() can only be called after requestMatchers() or anyRequest()");
+            if (anyRequestConfigured) {
+                this.defaultRateLimiter = rateLimiter;
+            } else {
+                requestMatcherConfigs.stream()
+                    .skip(lastIndex)
+                    .forEach(config -> config.rateLimiter = rateLimiter);
+            }
+            return this;
+        }
+
+        @Override
+        public RateLimitFilter build() {
+            return new RateLimitFilter(List.copyOf(requestMatcherConfigs), defaultRateLimiter,
+                rateLimitExceptionHandler);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.susimsek.springnextjssamples.web.filter;
 
 import io.github.susimsek.springnextjssamples.security.xss.XssRequestWrapper;
+import io.github.susimsek.springnextjssamples.utils.RequestMatcherIndex;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,12 +10,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,17 +25,21 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @RequiredArgsConstructor
 public class XssFilter extends OncePerRequestFilter {
 
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
+    private static final String SANITIZED_ATTRIBUTE = XssFilter.class.getName() + ".SANITIZED";
+
+    private final RequestMatcherIndex<RequestMatcherConfig> requestMatcherIndex;
     private final boolean defaultSanitized;
-    private final List<String> nonSanitizedHeaders;
+    private final Set<String> nonSanitizedHeaders;
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.sanitized)
-            .findFirst()
-            .orElse(!defaultSanitized);
+        if (request.getAttribute(SANITIZED_ATTRIBUTE) instanceof Boolean sanitized) {
+            return !sanitized;
+        }
+        RequestMatcherConfig config = requestMatcherIndex.match(request);
+        boolean sanitized = config != null ? config.sanitized : defaultSanitized;
+        request.setAttribute(SANITIZED_ATTRIBUTE, sanitized);
+        return !sanitized;
     }
 
     @Override
@@ -48,6 +55,8 @@ public class XssFilter extends OncePerRequestFilter {
     @AllArgsConstructor
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
+        private final HttpMethod method;
+        private final String pattern;
         private boolean sanitized;
     }
 
@@ -89,8 +98,7 @@ public class XssFilter extends OncePerRequestFilter {
         public Builder requestMatchers(HttpMethod method, String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(null, method, pattern, true));
             }
             return this;
         }
@@ -99,8 +107,7 @@ public class XssFilter extends OncePerRequestFilter {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(
-                    new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(null, null, pattern, true));
             }
             return this;
         }
@@ -109,7 +116,7 @@ public class XssFilter extends OncePerRequestFilter {
         public Builder requestMatchers(RequestMatcher... requestMatchers) {
             lastIndex = requestMatcherConfigs.size();
             for (RequestMatcher requestMatcher : requestMatchers) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(requestMatcher, true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(requestMatcher, null, null, true));
             }
             return this;
         }
@@ -153,7 +160,18 @@ public class XssFilter extends OncePerRequestFilter {
         }
 
         public XssFilter build() {
-            return new XssFilter(requestMatcherConfigs, defaultSanitized, nonSanitizedHeaders);
+            RequestMatcherIndex.Builder<RequestMatcherConfig> indexBuilder = RequestMatcherIndex.builder();
+            for (RequestMatcherConfig config : requestMatcherConfigs) {
+                if (config.requestMatcher != null) {
+                    indexBuilder.add(config.requestMatcher, config);
+                } else {
+                    indexBuilder.add(config.method, config.pattern, config);
+                }
+            }
+            Set<String> nonSanitizedHeaderNames = nonSanitizedHeaders.stream()
+                .map(headerName -> headerName.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+            return new XssFilter(indexBuilder.build(), defaultSanitized, nonSanitizedHeaderNames);
         }
 
         @Override
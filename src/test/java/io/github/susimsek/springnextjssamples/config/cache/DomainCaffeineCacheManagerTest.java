@@ -0,0 +1,114 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.ReflectiveSizeEstimator;
+import io.github.susimsek.springnextjssamples.config.cache.weigher.StringMapSizeEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.util.unit.DataSize;
+
+class DomainCaffeineCacheManagerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void splitsTheMemoryBudgetAcrossCachesByShare() {
+        CacheProperties cacheProperties = cacheProperties(DataSize.ofKilobytes(100), Map.of(
+            "small", budgetShare(1),
+            "large", budgetShare(3),
+            "fixed", maximumWeight(DataSize.ofKilobytes(10)),
+            "counted", new CacheProperties.CacheConfig()));
+
+        DomainCaffeineCacheManager cacheManager = cacheManager(cacheProperties);
+
+        assertEquals(25 * 1024, maximum(cacheManager, "small"));
+        assertEquals(75 * 1024, maximum(cacheManager, "large"));
+        assertEquals(10 * 1024, maximum(cacheManager, "fixed"));
+        assertEquals(10000, maximum(cacheManager, "counted"));
+        assertTrue(nativeCache(cacheManager, "counted").policy().eviction().orElseThrow().weightedSize().isEmpty());
+    }
+
+    @Test
+    void publishesTheEstimatedSizeOfWeighedCaches() {
+        CacheProperties cacheProperties = cacheProperties(DataSize.ofKilobytes(100), Map.of(
+            "weighed", budgetShare(1),
+            "counted", new CacheProperties.CacheConfig()));
+        DomainCaffeineCacheManager cacheManager = cacheManager(cacheProperties);
+
+        assertEquals(0.0, estimatedSize("weighed"));
+        assertNull(meterRegistry.find("cache.estimated.size").tag("cache", "counted").gauge());
+
+        cacheManager.getCache("weighed").put("hello.message", "Hello");
+        nativeCache(cacheManager, "weighed").cleanUp();
+
+        assertTrue(estimatedSize("weighed") > 0);
+    }
+
+    @Test
+    void createsConfiguredCachesEagerlyAndOthersOnFirstUse() {
+        CacheProperties cacheProperties = cacheProperties(null, Map.of(
+            "configured", new CacheProperties.CacheConfig()));
+        DomainCaffeineCacheManager cacheManager = cacheManager(cacheProperties);
+
+        assertNotNull(meterRegistry.find("cache.size").tag("cache", "configured").gauge());
+        assertNull(meterRegistry.find("cache.size").tag("cache", "other").gauge());
+
+        assertNotNull(cacheManager.getCache("other"));
+        assertNotNull(meterRegistry.find("cache.size").tag("cache", "other").gauge());
+    }
+
+    @Test
+    void rejectsBudgetSharesWithoutMemoryBudget() {
+        CacheProperties cacheProperties = cacheProperties(null, Map.of("weighed", budgetShare(1)));
+
+        assertThrows(IllegalStateException.class, () -> cacheManager(cacheProperties));
+    }
+
+    private DomainCaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        return new DomainCaffeineCacheManager(cacheProperties, Runnable::run, meterRegistry, List.of(),
+            new ReflectiveSizeEstimator(List.of(new StringMapSizeEstimator())));
+    }
+
+    private double estimatedSize(String cacheName) {
+        return meterRegistry.get("cache.estimated.size").tag("cache", cacheName).gauge().value();
+    }
+
+    private static long maximum(DomainCaffeineCacheManager cacheManager, String cacheName) {
+        return nativeCache(cacheManager, cacheName).policy().eviction().orElseThrow().getMaximum();
+    }
+
+    private static Cache<Object, Object> nativeCache(DomainCaffeineCacheManager cacheManager, String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache();
+    }
+
+    private static CacheProperties cacheProperties(DataSize memoryBudget,
+                                                   Map<String, CacheProperties.CacheConfig> caches) {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setDefaultConfig(new CacheProperties.CacheConfig());
+        cacheProperties.setMemoryBudget(memoryBudget);
+        cacheProperties.setCaches(caches);
+        return cacheProperties;
+    }
+
+    private static CacheProperties.CacheConfig budgetShare(int budgetShare) {
+        CacheProperties.CacheConfig config = new CacheProperties.CacheConfig();
+        config.setBudgetShare(budgetShare);
+        return config;
+    }
+
+    private static CacheProperties.CacheConfig maximumWeight(DataSize maximumWeight) {
+        CacheProperties.CacheConfig config = new CacheProperties.CacheConfig();
+        config.setMaximumWeight(maximumWeight);
+        return config;
+    }
+}
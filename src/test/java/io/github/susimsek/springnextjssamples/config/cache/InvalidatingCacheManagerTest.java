@@ -0,0 +1,62 @@
+package io.github.susimsek.springnextjssamples.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+class InvalidatingCacheManagerTest {
+
+    private Cache node1;
+    private Cache node2;
+
+    @BeforeEach
+    void setUp() {
+        CacheInvalidationBus bus = new LoopbackCacheInvalidationBus();
+        node1 = new InvalidatingCacheManager(new CaffeineCacheManager(), bus).getCache("keyEntityByKid");
+        node2 = new InvalidatingCacheManager(new CaffeineCacheManager(), bus).getCache("keyEntityByKid");
+    }
+
+    @Test
+    void evictRemovesKeyOnOtherNodes() {
+        node1.put("kid-1", "a1");
+        node2.put("kid-1", "a2");
+        node2.put("kid-2", "b2");
+
+        node1.evict("kid-1");
+
+        assertNull(node1.get("kid-1"));
+        assertNull(node2.get("kid-1"));
+        assertEquals("b2", node2.get("kid-2", String.class));
+    }
+
+    @Test
+    void evictWithNonStringKeyClearsOtherNodes() {
+        node1.put(new SimpleKey(true, "sig"), "a1");
+        node2.put(new SimpleKey(true, "sig"), "a2");
+        node2.put("kid-2", "b2");
+
+        node1.evict(new SimpleKey(true, "sig"));
+
+        assertNull(node2.get(new SimpleKey(true, "sig")));
+        assertNull(node2.get("kid-2"));
+    }
+
+    @Test
+    void clearClearsOtherNodesButPutsAreNotBroadcast() {
+        node1.put("kid-1", "a1");
+        node2.put("kid-1", "a2");
+
+        node1.put("kid-1", "a1'");
+        assertEquals("a2", node2.get("kid-1", String.class));
+
+        node1.clear();
+
+        assertNull(node1.get("kid-1"));
+        assertNull(node2.get("kid-1"));
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.susimsek.springnextjssamples.config.cache.weigher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springnextjssamples.entity.UserEntity;
+import io.github.susimsek.springnextjssamples.entity.UserRoleMappingEntity;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class ReflectiveSizeEstimatorTest {
+
+    private final ReflectiveSizeEstimator estimator = new ReflectiveSizeEstimator(
+        List.of(new StringMapSizeEstimator(), new EntitySizeEstimator()));
+
+    @Test
+    void estimatesStringsByLengthAndEncoding() {
+        assertEquals(24 + 16, estimator.estimate(""));
+        assertEquals(24 + 24, estimator.estimate("hello"));
+        assertEquals(24 + 40, estimator.estimate("merhaba ğ"));
+    }
+
+    @Test
+    void stringMapsGrowWithTheirContent() {
+        Map<String, String> small = new HashMap<>(Map.of("hello.message", "Hello"));
+        Map<String, String> large = new HashMap<>(small);
+        large.put("welcome.message", "Welcome to the application, we are glad to have you here.");
+
+        long smallSize = estimator.estimate(small);
+        long largeSize = estimator.estimate(large);
+
+        assertTrue(smallSize > 0);
+        assertTrue(largeSize > smallSize + 2 * 40);
+    }
+
+    @Test
+    void entitiesAreEstimatedWithoutTheirAssociations() {
+        UserEntity user = UserEntity.builder().username("admin").email("admin@example.com").build();
+        long withoutRoles = estimator.estimate(user);
+        for (int i = 0; i < 100; i++) {
+            UserRoleMappingEntity role = new UserRoleMappingEntity();
+            role.setUser(user);
+            user.getRoles().add(role);
+        }
+
+        assertEquals(withoutRoles, estimator.estimate(user));
+        assertEquals(withoutRoles + 16, estimator.estimate(Optional.of(user)));
+    }
+
+    @Test
+    void sharedAndCyclicReferencesAreCountedOnce() {
+        List<Object> list = new ArrayList<>();
+        String value = "x".repeat(1000);
+        list.add(value);
+        list.add(value);
+        list.add(list);
+
+        long size = estimator.estimate(list);
+
+        assertTrue(size >= estimator.estimate(value));
+        assertTrue(size < 2 * estimator.estimate(value));
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.susimsek.springnextjssamples.config.logging.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.susimsek.springnextjssamples.config.logging.LoggingProperties;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DefaultObfuscationStrategyTest {
+
+    private final DefaultObfuscationStrategy obfuscationStrategy = obfuscationStrategy();
+
+    @Test
+    void maskJsonBodyMasksValidJsonOnly() {
+        assertEquals("{\"name\":\"admin\",\"password\":\"****\"}",
+            obfuscationStrategy.maskJsonBody("{ \"name\": \"admin\", \"password\": \"s3cr3t\" }"));
+        assertNull(obfuscationStrategy.maskJsonBody("password=s3cr3t"));
+        assertNull(obfuscationStrategy.maskJsonBody(" "));
+    }
+
+    @Test
+    void maskBodyPrefixMasksTruncatedJson() {
+        assertEquals("{\"name\":\"admin\",\"password\":\"****\"",
+            obfuscationStrategy.maskBodyPrefix("{\"name\":\"admin\",\"password\":\"s3cr3t\",\"no"));
+        assertEquals("{\"name\":\"admin\"", obfuscationStrategy.maskBodyPrefix("{\"name\":\"admin\","));
+        assertEquals("{\"password\":\"****\"", obfuscationStrategy.maskBodyPrefix("{\"password\":\"s3c"));
+        assertEquals("password=s3c", obfuscationStrategy.maskBodyPrefix("password=s3c"));
+    }
+
+    private static DefaultObfuscationStrategy obfuscationStrategy() {
+        LoggingProperties loggingProperties = new LoggingProperties();
+        loggingProperties.getObfuscate().setJsonBodyFields(List.of("$.password"));
+        return new DefaultObfuscationStrategy(loggingProperties, new ObjectMapper());
+    }
+}
@@ -0,0 +1,264 @@
+package io.github.susimsek.springnextjssamples.config.logging.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonMaskerTest {
+
+    private static final String MASK = "****";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final List<String> PATHS = List.of(
+        "$.password", "token", "user.password", "credentials.*", "cards[*]", "orders[*].payment.cvv",
+        "*.secret", "data.items[*].key", "headers.x\\.api\\.key", "*");
+
+    private static final String[] FIELD_NAMES = {
+        "password", "token", "user", "credentials", "cards", "orders", "payment", "cvv", "secret", "data",
+        "items", "key", "headers", "x.api.key", "name"
+    };
+
+    private static final String[] PATH_SEGMENTS = {
+        "password", "token", "user", "credentials", "cards[*]", "orders[*]", "payment", "cvv", "secret", "data",
+        "items[*]", "key", "x\\.api\\.key", "*", "name"
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "{\"password\":\"s3cr3t\",\"name\":\"admin\"}",
+        "{\"user\":{\"password\":\"s3cr3t\",\"name\":\"admin\"},\"password\":{\"nested\":true}}",
+        "{\"credentials\":{\"a\":1,\"b\":{\"c\":\"d\"},\"e\":[1,2]},\"credentials2\":\"kept\"}",
+        "{\"cards\":[{\"number\":\"4111\",\"cvv\":\"123\"},\"plain\",[\"x\",{\"y\":1}],null]}",
+        "{\"orders\":[{\"payment\":{\"cvv\":\"123\",\"brand\":\"visa\"}},{\"payment\":null},{}],\"orders2\":[]}",
+        "{\"a\":{\"secret\":\"x\",\"other\":\"y\"},\"b\":[{\"secret\":\"z\"}],\"secret\":\"top\"}",
+        "{\"data\":{\"items\":[{\"key\":\"k1\",\"value\":\"v1\"},{\"items\":[{\"key\":\"k2\"}]}]}}",
+        "{\"headers\":{\"x.api.key\":\"abc\",\"x\":{\"api\":{\"key\":\"kept\"}}}}",
+        "[{\"password\":\"s3cr3t\"},{\"token\":\"t\"}]",
+        "{\"token\":[\"a\",\"b\"],\"cards\":\"not an array\",\"user\":\"not an object\"}",
+        "\"just a string\"",
+        "42",
+        "{}",
+        "[]",
+        "{\"password\":\"s3cr3t\"} trailing",
+        "{\"text\":\"unicode é ✓ \\u0000 \\\"quoted\\\"\",\"password\":\"p\"}"
+    })
+    void maskMatchesTreeWalkingMasking(String json) {
+        for (int i = 0; i < PATHS.size(); i++) {
+            List<String> paths = PATHS.subList(0, i + 1);
+            assertEquals(referenceMask(json, paths), JsonMasker.compile(OBJECT_MAPPER.getFactory(), paths, MASK)
+                .mask(json), "Paths: " + paths + ", input: " + json);
+        }
+    }
+
+    @Test
+    void maskMatchesTreeWalkingMaskingOnRandomDocuments() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            List<String> paths = randomPaths(random);
+            String json = randomValue(random, 0).toString();
+            JsonMasker masker = JsonMasker.compile(OBJECT_MAPPER.getFactory(), paths, MASK);
+            assertEquals(referenceMask(json, paths), masker.mask(json), "Paths: " + paths + ", input: " + json);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not json", "{\"password\":", "{\"password\":\"s3cr3t\"", "]", "   "})
+    void invalidJsonIsNotMasked(String input) {
+        JsonMasker masker = JsonMasker.compile(OBJECT_MAPPER.getFactory(), PATHS, MASK);
+
+        assertNull(masker.maskOrNull(input));
+        assertEquals(input, masker.mask(input));
+    }
+
+    @Test
+    void emptyMaskerCompactsDocuments() {
+        JsonMasker masker = JsonMasker.compile(OBJECT_MAPPER.getFactory(), null, MASK);
+
+        assertTrue(masker.isEmpty());
+        assertEquals("{\"a\":[1,2],\"b\":\"c\"}", masker.maskOrNull("{ \"a\" : [ 1, 2 ],\n \"b\" : \"c\" }"));
+    }
+
+    @Test
+    void truncatedPrefixesNeverRevealMaskedValues() {
+        String json = "{\"name\":\"admin\",\"password\":\"s3cr3t-password\",\"user\":{\"token\":\"s3cr3t-token\","
+            + "\"roles\":[\"admin\",\"user\"]},\"cards\":[{\"number\":\"s3cr3t-card\"}],\"note\":\"done\"}";
+        List<String> paths = List.of("password", "user.token", "cards[*]");
+        JsonMasker masker = JsonMasker.compile(OBJECT_MAPPER.getFactory(), paths, MASK);
+        String masked = masker.mask(json);
+        assertFalse(masked.contains("s3cr3t"));
+
+        for (int length = 1; length < json.length(); length++) {
+            String prefix = json.substring(0, length);
+            String maskedPrefix = masker.maskPrefix(prefix);
+
+            assertNotNull(maskedPrefix, prefix);
+            assertTrue(masked.startsWith(maskedPrefix), "Prefix: " + prefix + ", masked: " + maskedPrefix);
+        }
+    }
+
+    @Test
+    void truncatedPrefixesOfRandomDocumentsNeverRevealMaskedValues() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            List<String> paths = randomPaths(random);
+            JsonNode document = randomValue(random, 0);
+            if (document.isValueNode()) {
+                continue;
+            }
+            String json = document.toString();
+            JsonMasker masker = JsonMasker.compile(OBJECT_MAPPER.getFactory(), paths, MASK);
+            String masked = masker.mask(json);
+            for (int length = 1; length < json.length(); length++) {
+                String maskedPrefix = masker.maskPrefix(json.substring(0, length));
+
+                assertNotNull(maskedPrefix);
+                assertTrue(masked.startsWith(maskedPrefix),
+                    "Paths: " + paths + ", prefix: " + json.substring(0, length) + ", masked: " + maskedPrefix);
+            }
+        }
+    }
+
+    private static List<String> randomPaths(Random random) {
+        List<String> paths = new ArrayList<>();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            StringBuilder path = new StringBuilder(random.nextBoolean() ? "$." : "");
+            int depth = 1 + random.nextInt(3);
+            for (int j = 0; j < depth; j++) {
+                if (j > 0) {
+                    path.append('.');
+                }
+                path.append(PATH_SEGMENTS[random.nextInt(PATH_SEGMENTS.length)]);
+            }
+            paths.add(path.toString());
+        }
+        return paths;
+    }
+
+    private static JsonNode randomValue(Random random, int depth) {
+        int kind = random.nextInt(depth >= 4 ? 3 : 6);
+        return switch (kind) {
+            case 0 -> JsonNodeFactory.instance.textNode("v" + random.nextInt(100));
+            case 1 -> JsonNodeFactory.instance.numberNode(random.nextInt(1000));
+            case 2 -> random.nextBoolean() ? JsonNodeFactory.instance.booleanNode(true)
+                : JsonNodeFactory.instance.nullNode();
+            case 3 -> {
+                ArrayNode array = JsonNodeFactory.instance.arrayNode();
+                int size = random.nextInt(4);
+                for (int i = 0; i < size; i++) {
+                    array.add(randomValue(random, depth + 1));
+                }
+                yield array;
+            }
+            default -> {
+                ObjectNode object = JsonNodeFactory.instance.objectNode();
+                int size = random.nextInt(5);
+                for (int i = 0; i < size; i++) {
+                    object.set(FIELD_NAMES[random.nextInt(FIELD_NAMES.length)], randomValue(random, depth + 1));
+                }
+                yield object;
+            }
+        };
+    }
+
+    /**
+     * The tree-walking masking the masker replaced: every path is applied in turn to the parsed document.
+     */
+    private static String referenceMask(String body, List<String> paths) {
+        if (body == null || body.isBlank()) {
+            return body;
+        }
+        try {
+            JsonNode rootNode = OBJECT_MAPPER.readTree(body);
+            for (String path : paths) {
+                maskJsonNodeRecursive(rootNode, splitJsonPath(path.replace("$.", "")), 0);
+            }
+            return OBJECT_MAPPER.writeValueAsString(rootNode);
+        } catch (Exception e) {
+            return body;
+        }
+    }
+
+    private static String[] splitJsonPath(String jsonPath) {
+        List<String> pathParts = new ArrayList<>();
+        StringBuilder currentPart = new StringBuilder();
+        boolean escaped = false;
+        for (char c : jsonPath.toCharArray()) {
+            if (c == '\\' && !escaped) {
+                escaped = true;
+            } else if (c == '.' && !escaped) {
+                pathParts.add(currentPart.toString());
+                currentPart.setLength(0);
+            } else {
+                escaped = false;
+                currentPart.append(c);
+            }
+        }
+        pathParts.add(currentPart.toString());
+        return pathParts.toArray(new String[0]);
+    }
+
+    private static void maskJsonNodeRecursive(JsonNode currentNode, String[] pathParts, int index) {
+        if (currentNode == null || index >= pathParts.length) {
+            return;
+        }
+        String currentPart = pathParts[index].replace("\\.", ".");
+        if (currentPart.contains("[*]")) {
+            String arrayPart = currentPart.split("\\[\\*]")[0];
+            if (currentNode.has(arrayPart) && currentNode.get(arrayPart).isArray()) {
+                for (JsonNode arrayItem : currentNode.get(arrayPart)) {
+                    if (index + 1 == pathParts.length) {
+                        maskAllFields(arrayItem);
+                    } else {
+                        maskJsonNodeRecursive(arrayItem, pathParts, index + 1);
+                    }
+                }
+            }
+        } else if (currentPart.equals("*")) {
+            if (index + 1 == pathParts.length) {
+                maskAllFields(currentNode);
+            } else {
+                currentNode.fieldNames().forEachRemaining(fieldName ->
+                    maskJsonNodeRecursive(currentNode.get(fieldName), pathParts, index + 1));
+            }
+        } else if (currentNode.has(currentPart)) {
+            if (index + 1 == pathParts.length) {
+                ((ObjectNode) currentNode).set(currentPart, JsonNodeFactory.instance.textNode(MASK));
+            } else {
+                maskJsonNodeRecursive(currentNode.get(currentPart), pathParts, index + 1);
+            }
+        }
+    }
+
+    private static void maskAllFields(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode objectNode = (ObjectNode) node;
+            objectNode.fieldNames().forEachRemaining(fieldName ->
+                objectNode.set(fieldName, JsonNodeFactory.instance.textNode(MASK)));
+        } else if (node.isArray()) {
+            ArrayNode arrayNode = (ArrayNode) node;
+            for (int i = 0; i < arrayNode.size(); i++) {
+                JsonNode arrayItem = arrayNode.get(i);
+                if (arrayItem.isObject()) {
+                    maskAllFields(arrayItem);
+                } else {
+                    arrayNode.set(i, JsonNodeFactory.instance.textNode(MASK));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class JdbcRateLimitStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+    private static final String KEY = "client";
+
+    private final RateLimitBandwidth bandwidth = RateLimitBandwidth.of(2, Duration.ofSeconds(1));
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final DataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("CREATE TABLE rate_limit_bucket (bucket_key VARCHAR(512) PRIMARY KEY, "
+            + "theoretical_arrival_time BIGINT NOT NULL)");
+    }
+
+    @Test
+    void storesTheTheoreticalArrivalTimeOfTheBucket() {
+        assertEquals(RateLimitProbe.consumed(1, 1, 500 * MILLIS),
+            store(NOW, jdbcTemplate).acquire(KEY, 1, bandwidth));
+        assertEquals(epochNanos(NOW) + 500 * MILLIS, theoreticalArrivalTime());
+
+        assertEquals(RateLimitProbe.consumed(1, 0, 1000 * MILLIS),
+            store(NOW, jdbcTemplate).acquire(KEY, 5, bandwidth));
+        assertEquals(RateLimitProbe.rejected(1000 * MILLIS, 500 * MILLIS),
+            store(NOW, jdbcTemplate).acquire(KEY, 1, bandwidth));
+        assertEquals(epochNanos(NOW) + 1000 * MILLIS, theoreticalArrivalTime());
+
+        Instant later = NOW.plusMillis(750);
+        assertEquals(RateLimitProbe.consumed(1, 0, 750 * MILLIS),
+            store(later, jdbcTemplate).acquire(KEY, 1, bandwidth));
+    }
+
+    @Test
+    void retriesWhenAnotherInstanceCreatesTheBucket() {
+        JdbcTemplate otherInstance = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        AtomicBoolean raced = new AtomicBoolean();
+        JdbcTemplate racingTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (sql.startsWith("INSERT") && raced.compareAndSet(false, true)) {
+                    // the other instance empties the bucket between our select and insert
+                    otherInstance.update(sql, KEY, epochNanos(NOW) + 1000 * MILLIS);
+                }
+                return super.update(sql, args);
+            }
+        };
+
+        RateLimitProbe probe = store(NOW, racingTemplate).acquire(KEY, 1, bandwidth);
+
+        assertFalse(probe.consumed());
+        assertEquals(500 * MILLIS, probe.waitTime());
+        assertEquals(epochNanos(NOW) + 1000 * MILLIS, theoreticalArrivalTime());
+    }
+
+    @Test
+    void deletesFullBuckets() {
+        store(NOW, jdbcTemplate).acquire(KEY, 1, bandwidth);
+        store(NOW, jdbcTemplate).acquire("other", 2, bandwidth);
+
+        store(NOW.plusMillis(500), jdbcTemplate).deleteFullBuckets();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_bucket", Integer.class));
+        assertEquals(epochNanos(NOW) + 1000 * MILLIS, jdbcTemplate.queryForObject(
+            "SELECT theoretical_arrival_time FROM rate_limit_bucket WHERE bucket_key = 'other'", Long.class));
+    }
+
+    private JdbcRateLimitStore store(Instant now, JdbcTemplate template) {
+        return new JdbcRateLimitStore(template, new DataSourceTransactionManager(dataSource),
+            Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private long theoreticalArrivalTime() {
+        return jdbcTemplate.queryForObject(
+            "SELECT theoretical_arrival_time FROM rate_limit_bucket WHERE bucket_key = ?", Long.class, KEY);
+    }
+
+    private static long epochNanos(Instant instant) {
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class LeasingRateLimitStoreTest {
+
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+    private static final String KEY = "client";
+
+    private final AtomicLong time = new AtomicLong(Duration.ofHours(1).toNanos());
+    private final Ticker ticker = time::get;
+    private final SharedStore sharedStore = new SharedStore();
+
+    @Test
+    void leasesThePermitsExpectedOverTheLeaseDuration() {
+        RateLimitBandwidth bandwidth = RateLimitBandwidth.of(1000, Duration.ofSeconds(1));
+        LeasingRateLimitStore store = leasingStore(0.5);
+
+        // one request every 10 ms, so 10 requests per 100 ms lease
+        for (int i = 0; i < 100; i++) {
+            assertTrue(store.acquire(KEY, 1, bandwidth).consumed());
+            time.addAndGet(10 * MILLIS);
+        }
+
+        assertEquals(1, sharedStore.requested.getFirst());
+        for (long requested : sharedStore.requested.subList(1, sharedStore.requested.size())) {
+            assertEquals(10.0, requested, 1.0);
+        }
+        assertEquals(11.0, sharedStore.requested.size(), 1.0);
+    }
+
+    @Test
+    void capsLeasesAtTheMaximumFractionOfTheBucket() {
+        RateLimitBandwidth bandwidth = RateLimitBandwidth.of(100, Duration.ofSeconds(1));
+        LeasingRateLimitStore store = leasingStore(0.2);
+
+        // one request every 100 µs, far more than a lease can hold
+        for (int i = 0; i < 1000; i++) {
+            store.acquire(KEY, 1, bandwidth);
+            time.addAndGet(MILLIS / 10);
+        }
+
+        assertTrue(sharedStore.requested.stream().allMatch(requested -> requested <= 20));
+        assertEquals(20, sharedStore.requested.getLast());
+    }
+
+    @Test
+    void remembersRefusalsUntilPermitsAreAvailable() {
+        RateLimitBandwidth bandwidth = RateLimitBandwidth.of(10, Duration.ofSeconds(1));
+        LeasingRateLimitStore store = leasingStore(1);
+        sharedStore.acquire(KEY, 10, bandwidth);
+        sharedStore.requested.clear();
+
+        RateLimitProbe refused = store.acquire(KEY, 1, bandwidth);
+        assertFalse(refused.consumed());
+        assertEquals(100 * MILLIS, refused.waitTime());
+
+        time.addAndGet(40 * MILLIS);
+        RateLimitProbe cached = store.acquire(KEY, 1, bandwidth);
+        assertFalse(cached.consumed());
+        assertEquals(60 * MILLIS, cached.waitTime());
+        assertEquals(1, sharedStore.requested.size());
+
+        time.addAndGet(60 * MILLIS);
+        assertTrue(store.acquire(KEY, 1, bandwidth).consumed());
+        assertEquals(2, sharedStore.requested.size());
+    }
+
+    @Test
+    void neverGrantsMoreThanTheSharedBucket() {
+        RateLimitBandwidth bandwidth = RateLimitBandwidth.of(100, Duration.ofSeconds(1));
+        List<LeasingRateLimitStore> instances = List.of(leasingStore(0.5), leasingStore(0.5), leasingStore(0.5));
+        long start = time.get();
+
+        long granted = 0;
+        for (int i = 0; i < 3000; i++) {
+            granted += instances.get(i % instances.size()).acquire(KEY, 1, bandwidth).granted();
+            time.addAndGet(MILLIS);
+        }
+
+        long elapsed = time.get() - start;
+        assertTrue(granted <= sharedStore.granted, granted + " > " + sharedStore.granted);
+        assertTrue(sharedStore.granted <= bandwidth.limitForPeriod() + elapsed / bandwidth.emissionInterval());
+    }
+
+    @Test
+    void delegatesMultiPermitRequests() {
+        RateLimitBandwidth bandwidth = RateLimitBandwidth.of(10, Duration.ofSeconds(1));
+        LeasingRateLimitStore store = leasingStore(0.5);
+
+        assertEquals(RateLimitProbe.consumed(5, 5, 500 * MILLIS), store.acquire(KEY, 5, bandwidth));
+        assertEquals(List.of(5L), sharedStore.requested);
+    }
+
+    private LeasingRateLimitStore leasingStore(double maxLeaseFraction) {
+        return new LeasingRateLimitStore(sharedStore, Duration.ofMillis(100), maxLeaseFraction, 100, ticker);
+    }
+
+    /**
+     * A shared store on the test ticker, recording the permits requested and granted.
+     */
+    private final class SharedStore implements RateLimitStore {
+
+        private final Map<String, TokenBucket> buckets = new HashMap<>();
+        private final List<Long> requested = new ArrayList<>();
+        private long granted;
+
+        @Override
+        public RateLimitProbe acquire(String key, long permits, RateLimitBandwidth bandwidth) {
+            long now = ticker.read();
+            requested.add(permits);
+            RateLimitProbe probe = buckets.computeIfAbsent(key, k -> new TokenBucket(now))
+                .tryConsume(now, permits, bandwidth);
+            granted += probe.granted();
+            return probe;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.susimsek.springnextjssamples.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long NOW = Duration.ofHours(1).toNanos();
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+    private final RateLimitBandwidth bandwidth = RateLimitBandwidth.of(10, Duration.ofSeconds(1));
+
+    @Test
+    void bandwidthSpreadsThePeriodOverThePermits() {
+        assertEquals(new RateLimitBandwidth(10, 100 * MILLIS, 1000 * MILLIS), bandwidth);
+        assertEquals(new RateLimitBandwidth(3, 333_333_333L, 999_999_999L),
+            RateLimitBandwidth.of(3, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitBandwidth.of(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitBandwidth.of(10, Duration.ofNanos(9)));
+    }
+
+    @Test
+    void nextAdvancesTheTheoreticalArrivalTimeFromNowOrFromTheBacklog() {
+        assertEquals(NOW + 300 * MILLIS, bandwidth.next(NOW - 5000 * MILLIS, NOW, 3));
+        assertEquals(NOW + 400 * MILLIS, bandwidth.next(NOW + 200 * MILLIS, NOW, 2));
+    }
+
+    @Test
+    void fullBucketGrantsTheBurstThenRefuses() {
+        TokenBucket bucket = new TokenBucket(NOW);
+
+        for (int i = 1; i <= 10; i++) {
+            RateLimitProbe probe = bucket.tryConsume(NOW, 1, bandwidth);
+            assertEquals(RateLimitProbe.consumed(1, 10 - i, i * 100 * MILLIS), probe);
+        }
+
+        RateLimitProbe refused = bucket.tryConsume(NOW, 1, bandwidth);
+        assertEquals(RateLimitProbe.rejected(1000 * MILLIS, 100 * MILLIS), refused);
+        assertEquals(100, refused.waitTimeMillis());
+        assertEquals(1000, refused.resetTimeMillis());
+    }
+
+    @Test
+    void permitsRefillContinuously() {
+        TokenBucket bucket = new TokenBucket(NOW);
+        bucket.tryConsume(NOW, 10, bandwidth);
+
+        long later = NOW + 250 * MILLIS;
+        assertEquals(RateLimitProbe.consumed(1, 1, 850 * MILLIS), bucket.tryConsume(later, 1, bandwidth));
+        assertEquals(RateLimitProbe.consumed(1, 0, 950 * MILLIS), bucket.tryConsume(later, 1, bandwidth));
+
+        RateLimitProbe refused = bucket.tryConsume(later, 1, bandwidth);
+        assertEquals(RateLimitProbe.rejected(950 * MILLIS, 50 * MILLIS), refused);
+
+        long idle = NOW + Duration.ofMinutes(1).toNanos();
+        assertEquals(RateLimitProbe.consumed(10, 0, 1000 * MILLIS), bucket.tryConsume(idle, 20, bandwidth));
+    }
+
+    @Test
+    void multiPermitRequestsAreGrantedPartially() {
+        TokenBucket bucket = new TokenBucket(NOW);
+
+        assertEquals(RateLimitProbe.consumed(4, 6, 400 * MILLIS), bucket.tryConsume(NOW, 4, bandwidth));
+        assertEquals(RateLimitProbe.consumed(6, 0, 1000 * MILLIS), bucket.tryConsume(NOW, 10, bandwidth));
+        assertFalse(bucket.tryConsume(NOW, 3, bandwidth).consumed());
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToMilliseconds() {
+        RateLimitBandwidth oddBandwidth = RateLimitBandwidth.of(3, Duration.ofSeconds(1));
+        TokenBucket bucket = new TokenBucket(NOW);
+        bucket.tryConsume(NOW, 3, oddBandwidth);
+
+        RateLimitProbe refused = bucket.tryConsume(NOW + MILLIS, 1, oddBandwidth);
+
+        assertEquals(332_333_333L, refused.waitTime());
+        assertEquals(333, refused.waitTimeMillis());
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheBucket() throws Exception {
+        TokenBucket bucket = new TokenBucket(NOW);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long granted = 0;
+                    for (int j = 0; j < 1000; j++) {
+                        granted += bucket.tryConsume(NOW, 1, bandwidth).granted();
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            long granted = 0;
+            for (Future<Long> future : futures) {
+                granted += future.get();
+            }
+            assertEquals(10, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.susimsek.springnextjssamples.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SanitizationUtilTest {
+
+    private static final Pattern[] REFERENCE_PATTERNS = new Pattern[] {
+        Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("src[\r\n]*=[\r\n]*'(.*?)'", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("src[\r\n]*=[\r\n]*\"(.*?)\"", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("</script>", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)
+    };
+
+    private static final String[] FRAGMENTS = {
+        "<script>", "</script>", "<SCRIPT", "<scr", "ipt>", "src", "SRC", "=", "'", "\"", "\r", "\n", "eval(",
+        "EvAl", "(", ")", "expression(", "javascript:", "JavaScript", ":", "vbscript:", "onload", "OnLoad", "<", ">",
+        "/", "a", " ", "hello", "ſ", "İ", "é", "java", "script", "<sc<script>ript>", " "
+    };
+
+    private static String referenceSanitize(String input) {
+        String sanitized = input;
+        for (Pattern pattern : REFERENCE_PATTERNS) {
+            sanitized = pattern.matcher(sanitized).replaceAll("");
+        }
+        return sanitized;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "plain text",
+        "/api/v1/hello",
+        "page=0&size=20&sort=createdAt,desc",
+        "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko)"
+    })
+    void testSanitizeInputReturnsCleanInputAsIs(String input) {
+        assertSame(input, SanitizationUtil.sanitizeInput(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "<script>alert(1)</script>hello",
+        "<ScRiPt src='x.js'></sCrIpT>",
+        "<img src=\"x\" onload=alert(1)>",
+        "a href=javascript:alert(1)",
+        "VBScript:msgbox",
+        "style=expression(alert(1))",
+        "eval(atob('YWxlcnQoMSk='))",
+        "java<script>script:alert(1)",
+        "<scr<script>ipt>alert(1)</scr</script>ipt>",
+        "src\r\n=\r\n'multi\nline'",
+        "ſcript: not ascii",
+        "onload without equals",
+        "<script>unterminated"
+    })
+    void testSanitizeInputMatchesRegexChain(String input) {
+        assertEquals(referenceSanitize(input), SanitizationUtil.sanitizeInput(input));
+    }
+
+    @Test
+    void testSanitizeInputMatchesRegexChainOnRandomInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String value = input.toString();
+            assertEquals(referenceSanitize(value), SanitizationUtil.sanitizeInput(value), "Input: " + value);
+        }
+    }
+}